@@ -9,26 +9,34 @@ import javax.swing.table.AbstractTableModel;
 /**
  * Lädt index.json, Bereichsdateien und gefahrenzahl.json.
  * Stellt Abfragen nach Klasse, Bereich und UN-Nummer bereit.
+ *
+ * Es können mehrere Datenausgaben (z. B. ADR 2023 und 2025) gleichzeitig
+ * geladen sein. Abfragen beziehen sich auf die aktuelle Ausgabe. Unveränderte
+ * Bereichsdateien (gleicher Inhalts-Hash), identische Zeilen und Texte werden
+ * zwischen den Ausgaben geteilt.
+ *
+ * Abfragen dürfen aus beliebigen Threads kommen: Eine Ausgabe wird nach dem
+ * Laden nicht mehr verändert und über das volatile Feld {@code current}
+ * veröffentlicht. Laden, Umschalten und {@link #reload()} sind synchronisiert.
  */
 class DataRepository {
 
-    private final File dataRoot;
-    private final List<IndexRange> ranges = new ArrayList<>();
-    private final Map<String, List<Substance>> byClass = new HashMap<>();
-    private final Map<String, List<Substance>> byRange = new HashMap<>();
-    private final Map<String, List<Substance>> byUn = new HashMap<>();
-    private final Map<String, String> hazardCodeToDesc = new HashMap<>();
+    private final Map<String, DataEdition> editions = new LinkedHashMap<>();
+    private volatile DataEdition current;
 
-    // Optionales Mapping für Sonderhinweise (falls missing_gefahrenzahl.json vorhanden)
-    private final Map<String, String> hintByUn = new HashMap<>();
+    // Von allen Ausgaben gemeinsam genutzt
+    private final Map<String, String> stringPool = new HashMap<>();
+    private final Map<Substance, Substance> rowPool = new HashMap<>();
+    private final Map<String, List<Substance>> rangeRowsByHash = new HashMap<>();
+
+    private static final Pattern RANGE_PATTERN = Pattern.compile("(\\d{4})\\s*[–-]\\s*(\\d{4})");
 
     public DataRepository(File dataRoot) throws IOException {
         if (dataRoot == null) throw new IOException("Kein Datenordner angegeben.");
-        this.dataRoot = dataRoot;
-        loadAll();
+        current = loadEdition(null, dataRoot);
     }
 
-    public File getDataRoot() { return dataRoot; }
+    public File getDataRoot() { return current.dataRoot; }
 
     static File findDefaultDataRoot() {
         // bevorzugt ./data/index.json, dann ./index.json, sonst FileChooser
@@ -48,18 +56,90 @@ class DataRepository {
         return here;
     }
 
-    private void loadAll() throws IOException {
-        Path indexPath = findIndexJson(dataRoot.toPath());
+    /* ----- Ausgaben ----- */
+
+    /**
+     * Lädt einen weiteren Datenordner als eigene Ausgabe. Ohne Namen wird der
+     * Ordnername verwendet. Die aktuelle Ausgabe bleibt unverändert.
+     */
+    public synchronized DataEdition loadEdition(String name, File dataRoot) throws IOException {
+        if (dataRoot == null) throw new IOException("Kein Datenordner angegeben.");
+        String base = (name == null || name.isBlank()) ? dataRoot.getAbsoluteFile().getName() : name;
+        String unique = base;
+        for (int n = 2; editions.containsKey(unique); n++) unique = base + " (" + n + ")";
+        DataEdition ed = new DataEdition(unique, dataRoot);
+        loadAllOrPrune(ed);
+        editions.put(unique, ed);
+        return ed;
+    }
+
+    public synchronized List<String> getEditionNames() { return new ArrayList<>(editions.keySet()); }
+
+    public String getCurrentEditionName() { return current.name; }
+
+    /** Aktuelle Ausgabe als fester Stand (wird nach dem Laden nicht mehr verändert). */
+    DataEdition getCurrentEdition() { return current; }
+
+    public synchronized void setCurrentEdition(String name) {
+        DataEdition ed = editions.get(name);
+        if (ed == null) throw new IllegalArgumentException("Unbekannte Ausgabe: " + name);
+        current = ed;
+    }
+
+    /**
+     * Entfernt eine Ausgabe; die aktuelle Ausgabe kann nicht entfernt werden.
+     * Nur von ihr genutzte Zeilen und Texte werden aus den Pools entfernt.
+     */
+    public synchronized void removeEdition(String name) {
+        if (current.name.equals(name)) throw new IllegalArgumentException("Aktuelle Ausgabe kann nicht entfernt werden.");
+        if (editions.remove(name) != null) prunePools();
+    }
+
+    /**
+     * Lädt den Ordner der aktuellen Ausgabe neu und tauscht sie atomar aus.
+     * Laufende Abfragen arbeiten mit der alten Ausgabe zu Ende; was nur die
+     * alte Ausgabe nutzte, wird aus den Pools entfernt.
+     */
+    public synchronized void reload() throws IOException {
+        DataEdition old = current;
+        DataEdition ed = new DataEdition(old.name, old.dataRoot);
+        loadAllOrPrune(ed);
+        editions.put(ed.name, ed);
+        current = ed;
+        prunePools();
+    }
+
+    /** Größen der gemeinsamen Pools (für den Lasttest). */
+    synchronized Map<String, Integer> poolSizes() {
+        Map<String, Integer> m = new LinkedHashMap<>();
+        m.put("strings", stringPool.size());
+        m.put("rows", rowPool.size());
+        m.put("ranges", rangeRowsByHash.size());
+        return m;
+    }
+
+    /** Wie {@link #loadAll}, entfernt bei einem Fehler aber die bis dahin angelegten Pool-Einträge. */
+    private void loadAllOrPrune(DataEdition ed) throws IOException {
+        try {
+            loadAll(ed);
+        } catch (IOException | RuntimeException e) {
+            prunePools();
+            throw e;
+        }
+    }
+
+    private void loadAll(DataEdition ed) throws IOException {
+        Path indexPath = findIndexJson(ed.dataRoot.toPath());
         if (indexPath == null) throw new IOException("index.json nicht gefunden.");
         Object idx = JSONMini.parse(Files.readString(indexPath, StandardCharsets.UTF_8));
         Map<String, Object> idxMap = asObj(idx);
         List<Object> rangesArr = asArr(idxMap.get("ranges"));
         for (Object o : rangesArr) {
             Map<String, Object> m = asObj(o);
-            String label = str(m.get("range"));
+            String label = intern(str(m.get("range")));
             String file = str(m.get("file"));
             int count = (m.get("count") instanceof Number) ? ((Number)m.get("count")).intValue() : -1;
-            ranges.add(new IndexRange(label, file, count));
+            ed.ranges.add(new IndexRange(label, file, count));
         }
         // Load hazard number dict
         Path hz = indexPath.getParent().resolve("gefahrenzahl.json");
@@ -69,9 +149,9 @@ class DataRepository {
             List<Object> codes = asArr(hm.get("codes"));
             for (Object co : codes) {
                 Map<String, Object> c = asObj(co);
-                String code = str(c.get("code"));
-                String desc = str(c.get("description"));
-                hazardCodeToDesc.put(code, desc);
+                String code = intern(str(c.get("code")));
+                String desc = intern(str(c.get("description")));
+                ed.hazardCodeToDesc.put(code, desc);
             }
         }
         // Optional hints
@@ -85,49 +165,118 @@ class DataRepository {
                 String un = str(r.get("un_number"));
                 String hint = strOrNull(r.get("hint"));
                 if (un != null && hint != null && !hint.isBlank()) {
-                    hintByUn.put(un, hint);
+                    ed.hintByUn.put(intern(un), intern(hint));
                 }
             }
         }
 
         // Load each range file
-        for (IndexRange r : ranges) {
+        for (IndexRange r : ed.ranges) {
             Path rp = indexPath.getParent().resolve(r.fileName);
-            if (!Files.exists(rp)) continue;
-            Object ro = JSONMini.parse(Files.readString(rp, StandardCharsets.UTF_8));
-            Map<String, Object> rm = asObj(ro);
-            List<Object> rows = asArr(rm.get("rows"));
-            List<Substance> list = new ArrayList<>();
-            for (Object eo : rows) {
-                Map<String, Object> e = asObj(eo);
-                String un = str(e.get("un_number"));
-                String gz = strOrNull(e.get("gefahrenzahl"));
-                String kl = str(e.get("klasse"));
-                String name = str(e.get("bezeichnung"));
-                Substance s = new Substance(un, gz, kl, name, r.rangeLabel);
-                list.add(s);
-
-                byClass.putIfAbsent(kl, new ArrayList<Substance>());
-                byClass.get(kl).add(s);
-                byUn.putIfAbsent(un, new ArrayList<Substance>());
-                byUn.get(un).add(s);
+            if (!Files.exists(rp)) { ed.missingRangeFiles.add(r.fileName); continue; }
+            byte[] bytes = Files.readAllBytes(rp);
+            String hash = contentHash(bytes);
+            ed.rangeHash.put(r.rangeLabel, hash);
+
+            // Gleicher Inhalt unter gleichem Label schon geladen → Zeilen übernehmen
+            String cacheKey = r.rangeLabel + '\u0000' + hash;
+            List<Substance> list = rangeRowsByHash.get(cacheKey);
+            if (list == null) {
+                Object ro = JSONMini.parse(bytes);
+                Map<String, Object> rm = asObj(ro);
+                List<Object> rows = asArr(rm.get("rows"));
+                list = new ArrayList<>(rows.size());
+                for (Object eo : rows) {
+                    Map<String, Object> e = asObj(eo);
+                    String un = intern(str(e.get("un_number")));
+                    String gz = intern(strOrNull(e.get("gefahrenzahl")));
+                    String kl = intern(str(e.get("klasse")));
+                    String name = intern(str(e.get("bezeichnung")));
+                    Substance s = new Substance(un, gz, kl, name, r.rangeLabel);
+                    list.add(rowPool.computeIfAbsent(s, k -> k));
+                }
+                sortSubs(list);
+                rangeRowsByHash.put(cacheKey, list);
+            }
+            ed.byRange.put(r.rangeLabel, list);
+            for (Substance s : list) {
+                ed.byClass.computeIfAbsent(s.klass, k -> new ArrayList<>()).add(s);
+                ed.byUn.computeIfAbsent(s.unNumber, k -> new ArrayList<>()).add(s);
             }
-            byRange.put(r.rangeLabel, list);
         }
 
         // Sort intern – ohne "unused parameter"-Warnung
-        for (Map.Entry<String, List<Substance>> e : byClass.entrySet()) {
+        for (Map.Entry<String, List<Substance>> e : ed.byClass.entrySet()) {
             e.setValue(sortSubs(e.getValue()));
         }
-        for (Map.Entry<String, List<Substance>> e : byRange.entrySet()) {
+        for (Map.Entry<String, List<Substance>> e : ed.byUn.entrySet()) {
             e.setValue(sortSubs(e.getValue()));
         }
-        for (Map.Entry<String, List<Substance>> e : byUn.entrySet()) {
-            e.setValue(sortSubs(e.getValue()));
+        ed.sortedUns = ed.byUn.keySet().toArray(new String[0]);
+        Arrays.sort(ed.sortedUns);
+    }
+
+    /**
+     * Baut die gemeinsamen Pools aus den noch geladenen Ausgaben neu auf, damit
+     * entfernte oder ersetzte Ausgaben keinen Speicher mehr belegen.
+     */
+    private void prunePools() {
+        Set<String> liveKeys = new HashSet<>();
+        for (DataEdition ed : editions.values()) {
+            for (Map.Entry<String, String> e : ed.rangeHash.entrySet()) liveKeys.add(e.getKey() + '\u0000' + e.getValue());
+        }
+        rangeRowsByHash.keySet().retainAll(liveKeys);
+
+        Set<String> strings = new HashSet<>();
+        rowPool.clear();
+        for (List<Substance> list : rangeRowsByHash.values()) {
+            for (Substance s : list) {
+                rowPool.put(s, s);
+                keep(strings, s.unNumber);
+                keep(strings, s.hazardNumber);
+                keep(strings, s.klass);
+                keep(strings, s.name);
+                keep(strings, s.rangeLabel);
+            }
+        }
+        for (DataEdition ed : editions.values()) {
+            for (IndexRange r : ed.ranges) keep(strings, r.rangeLabel);
+            for (Map.Entry<String, String> e : ed.hazardCodeToDesc.entrySet()) { keep(strings, e.getKey()); keep(strings, e.getValue()); }
+            for (Map.Entry<String, String> e : ed.hintByUn.entrySet()) { keep(strings, e.getKey()); keep(strings, e.getValue()); }
         }
+        stringPool.keySet().retainAll(strings);
     }
 
-    private Path findIndexJson(Path root) {
+    private static void keep(Set<String> strings, String s) {
+        if (s != null) strings.add(s);
+    }
+
+    private String intern(String s) {
+        if (s == null) return null;
+        String prev = stringPool.putIfAbsent(s, s);
+        return prev != null ? prev : s;
+    }
+
+    static String contentHash(byte[] bytes) {
+        try {
+            byte[] d = java.security.MessageDigest.getInstance("SHA-256").digest(bytes);
+            StringBuilder sb = new StringBuilder(d.length * 2);
+            for (byte b : d) sb.append(String.format("%02x", b));
+            return sb.toString();
+        } catch (java.security.NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** "0100–0199" → [100, 199]; null wenn nicht auswertbar. */
+    static int[] parseRangeLabel(String label) {
+        if (label == null) return null;
+        java.util.regex.Matcher m = RANGE_PATTERN.matcher(label);
+        if (!m.find()) return null;
+        return new int[]{Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))};
+    }
+
+    static Path findIndexJson(Path root) {
         Path p1 = root.resolve("index.json");
         if (Files.exists(p1)) return p1;
         Path p2 = root.resolve("data").resolve("index.json");
@@ -143,40 +292,91 @@ class DataRepository {
 
     /* ----- Queries ----- */
 
-    public List<IndexRange> getRanges() { return Collections.unmodifiableList(ranges); }
+    public List<IndexRange> getRanges() { return Collections.unmodifiableList(current.ranges); }
+
+    /** Dateinamen aus index.json, die beim Laden nicht gefunden wurden. */
+    public List<String> getMissingRangeFiles() { return Collections.unmodifiableList(current.missingRangeFiles); }
 
     public List<String> getAllClassesSorted() {
-        List<String> cls = new ArrayList<>(byClass.keySet());
+        List<String> cls = new ArrayList<>(current.byClass.keySet());
         cls.sort(new ClassCodeComparator());
         return cls;
     }
 
     public List<Substance> getByClass(String klass) {
-        return byClass.getOrDefault(klass, Collections.emptyList());
+        return current.byClass.getOrDefault(klass, Collections.emptyList());
     }
 
     public List<Substance> getByRange(String rangeLabel) {
-        return byRange.getOrDefault(rangeLabel, Collections.emptyList());
+        return current.byRange.getOrDefault(rangeLabel, Collections.emptyList());
     }
 
     public List<Substance> getByUN(String un) {
-        return byUn.getOrDefault(un, Collections.emptyList());
+        return current.byUn.getOrDefault(un, Collections.emptyList());
+    }
+
+    /** Alle Einträge, deren UN-Nummer mit dem Präfix beginnt (Binärsuche im sortierten Index). */
+    public List<Substance> findByUnPrefix(String prefix) {
+        DataEdition ed = current;
+        List<Substance> out = new ArrayList<>();
+        if (prefix == null || prefix.isEmpty()) return out;
+        int k = Arrays.binarySearch(ed.sortedUns, prefix);
+        if (k < 0) k = -k - 1;
+        for (; k < ed.sortedUns.length && ed.sortedUns[k].startsWith(prefix); k++) {
+            out.addAll(ed.byUn.get(ed.sortedUns[k]));
+        }
+        return out;
+    }
+
+    /** Volltextsuche in der Bezeichnung (ohne Groß-/Kleinschreibung), in Reihenfolge der Bereiche. */
+    public List<Substance> searchByName(String text) {
+        DataEdition ed = current;
+        List<Substance> out = new ArrayList<>();
+        if (text == null || text.isBlank()) return out;
+        String q = text.trim();
+        for (IndexRange r : ed.ranges) {
+            for (Substance s : ed.byRange.getOrDefault(r.rangeLabel, Collections.emptyList())) {
+                if (containsIgnoreCase(s.name, q)) out.add(s);
+            }
+        }
+        return out;
+    }
+
+    private static boolean containsIgnoreCase(String hay, String needle) {
+        int max = hay.length() - needle.length();
+        char lo = Character.toLowerCase(needle.charAt(0)), up = Character.toUpperCase(needle.charAt(0));
+        for (int k = 0; k <= max; k++) {
+            char c = hay.charAt(k);
+            // erst das erste Zeichen prüfen, regionMatches nur bei Kandidaten
+            if ((c == lo || c == up) && hay.regionMatches(true, k, needle, 0, needle.length())) return true;
+        }
+        return false;
     }
 
     public String getHazardDescription(String code) {
         if (code == null || code.isBlank()) return null;
-        String exact = hazardCodeToDesc.get(code);
+        DataEdition ed = current;
+        String exact = ed.hazardCodeToDesc.get(code);
         if (exact != null) return exact;
         // sometimes X-prefix → try without X
-        if (code.startsWith("X")) return hazardCodeToDesc.get(code.substring(1));
+        if (code.startsWith("X")) return ed.hazardCodeToDesc.get(code.substring(1));
         return null;
     }
 
     public String deriveHint(Substance s) {
+        return deriveHint(current, s);
+    }
+
+    static String deriveHint(DataEdition ed, Substance s) {
         // Prefer hint mapping from missing_gefahrenzahl.json
-        if (hintByUn.containsKey(s.unNumber)) return hintByUn.get(s.unNumber);
-        // Heuristics from name text
-        final String nm = s.name.toLowerCase(Locale.ROOT);
+        String hint = ed.hintByUn.get(s.unNumber);
+        if (hint != null) return hint;
+        return hintFromName(s.name);
+    }
+
+    /** Heuristik anhand der Bezeichnung (auch vom DataValidator genutzt). */
+    static String hintFromName(String name) {
+        final String nm = name.toLowerCase(Locale.ROOT);
         if (nm.contains("beförderung verboten")) return "Beförderung verboten";
         if (nm.contains("unterliegt nicht den vorschriften des adr") || nm.contains("not subject to adr"))
             return "Unterliegt nicht den Vorschriften des ADR";
@@ -185,17 +385,71 @@ class DataRepository {
         return null;
     }
 
+    /* ----- Vergleich ----- */
+
+    /**
+     * Vergleicht zwei geladene Ausgaben. Bereiche mit gleichem Inhalts-Hash
+     * werden übersprungen; innerhalb geänderter Bereiche wird je UN-Nummer
+     * verglichen (Gefahrenzahl, Klasse, Bezeichnung).
+     */
+    public synchronized EditionDiff diff(String fromName, String toName) {
+        DataEdition a = editions.get(fromName), b = editions.get(toName);
+        if (a == null || b == null) throw new IllegalArgumentException("Unbekannte Ausgabe: " + (a == null ? fromName : toName));
+        EditionDiff diff = new EditionDiff(a.name, b.name);
+
+        Set<String> labels = new LinkedHashSet<>(a.byRange.keySet());
+        labels.addAll(b.byRange.keySet());
+        Set<String> uns = new TreeSet<>();
+        for (String label : labels) {
+            String ha = a.rangeHash.get(label), hb = b.rangeHash.get(label);
+            if (ha != null && ha.equals(hb)) { diff.unchangedRanges++; continue; }
+            diff.changedRanges++;
+            for (Substance s : a.byRange.getOrDefault(label, Collections.emptyList())) uns.add(s.unNumber);
+            for (Substance s : b.byRange.getOrDefault(label, Collections.emptyList())) uns.add(s.unNumber);
+        }
+
+        for (String un : uns) {
+            List<Substance> oldRows = new ArrayList<>(a.byUn.getOrDefault(un, Collections.emptyList()));
+            List<Substance> newRows = new ArrayList<>(b.byUn.getOrDefault(un, Collections.emptyList()));
+            // identische Einträge streichen (meist dieselbe Instanz aus dem rowPool)
+            for (Iterator<Substance> it = oldRows.iterator(); it.hasNext(); ) {
+                Substance s = it.next();
+                for (int k = 0; k < newRows.size(); k++) {
+                    if (newRows.get(k).sameEntry(s)) { newRows.remove(k); it.remove(); break; }
+                }
+            }
+            // gleiche Bezeichnung zuerst paaren, danach in Reihenfolge
+            for (Iterator<Substance> it = oldRows.iterator(); it.hasNext(); ) {
+                Substance s = it.next();
+                for (int k = 0; k < newRows.size(); k++) {
+                    if (newRows.get(k).name.equals(s.name)) {
+                        diff.entries.add(new DiffEntry(DiffKind.CHANGED, un, s, newRows.remove(k)));
+                        it.remove();
+                        break;
+                    }
+                }
+            }
+            int pairs = Math.min(oldRows.size(), newRows.size());
+            for (int k = 0; k < pairs; k++) {
+                diff.entries.add(new DiffEntry(DiffKind.CHANGED, un, oldRows.get(k), newRows.get(k)));
+            }
+            for (int k = pairs; k < oldRows.size(); k++) diff.entries.add(new DiffEntry(DiffKind.REMOVED, un, oldRows.get(k), null));
+            for (int k = pairs; k < newRows.size(); k++) diff.entries.add(new DiffEntry(DiffKind.ADDED, un, null, newRows.get(k)));
+        }
+        return diff;
+    }
+
     /* ----- helpers ----- */
     @SuppressWarnings("unchecked")
-    private static Map<String, Object> asObj(Object o) {
+    static Map<String, Object> asObj(Object o) {
         return (Map<String, Object>) o;
     }
     @SuppressWarnings("unchecked")
-    private static List<Object> asArr(Object o) {
+    static List<Object> asArr(Object o) {
         return (List<Object>) o;
     }
-    private static String str(Object o) { return o == null ? "" : String.valueOf(o); }
-    private static String strOrNull(Object o) { return (o == null || String.valueOf(o).equals("null")) ? null : String.valueOf(o); }
+    static String str(Object o) { return o == null ? "" : String.valueOf(o); }
+    static String strOrNull(Object o) { return (o == null || String.valueOf(o).equals("null")) ? null : String.valueOf(o); }
 }
 
 /* Models & Utils */
@@ -226,6 +480,78 @@ class Substance {
         this.name = name;
         this.rangeLabel = range;
     }
+
+    /** Gleicher Inhalt, Bereich egal (für den Ausgabenvergleich). */
+    boolean sameEntry(Substance o) {
+        return o == this || (unNumber.equals(o.unNumber) && Objects.equals(hazardNumber, o.hazardNumber)
+                && klass.equals(o.klass) && name.equals(o.name));
+    }
+
+    @Override public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof Substance)) return false;
+        Substance s = (Substance) o;
+        return sameEntry(s) && rangeLabel.equals(s.rangeLabel);
+    }
+
+    @Override public int hashCode() {
+        return Objects.hash(unNumber, hazardNumber, klass, name, rangeLabel);
+    }
+}
+
+/** Eine geladene Datenausgabe (ein Datenordner). */
+class DataEdition {
+    final String name;
+    final File dataRoot;
+    final List<IndexRange> ranges = new ArrayList<>();
+    final Map<String, List<Substance>> byClass = new HashMap<>();
+    final Map<String, List<Substance>> byRange = new HashMap<>();
+    final Map<String, List<Substance>> byUn = new HashMap<>();
+    final Map<String, String> hazardCodeToDesc = new HashMap<>();
+    // Optionales Mapping für Sonderhinweise (falls missing_gefahrenzahl.json vorhanden)
+    final Map<String, String> hintByUn = new HashMap<>();
+    // Im Index gelistete, aber nicht vorhandene Bereichsdateien
+    final List<String> missingRangeFiles = new ArrayList<>();
+    // Bereichslabel → SHA-256 der Bereichsdatei
+    final Map<String, String> rangeHash = new HashMap<>();
+    // Sortierte UN-Nummern für die Präfixsuche
+    String[] sortedUns = new String[0];
+
+    DataEdition(String name, File dataRoot) {
+        this.name = name;
+        this.dataRoot = dataRoot;
+    }
+}
+
+enum DiffKind { ADDED, REMOVED, CHANGED; }
+
+class DiffEntry {
+    final DiffKind kind;
+    final String unNumber;
+    final Substance before; // null bei ADDED
+    final Substance after;  // null bei REMOVED
+    DiffEntry(DiffKind kind, String un, Substance before, Substance after) {
+        this.kind = kind;
+        this.unNumber = un;
+        this.before = before;
+        this.after = after;
+    }
+}
+
+/** Ergebnis von {@link DataRepository#diff(String, String)}. */
+class EditionDiff {
+    final String from;
+    final String to;
+    final List<DiffEntry> entries = new ArrayList<>();
+    int changedRanges;
+    int unchangedRanges;
+    EditionDiff(String from, String to) { this.from = from; this.to = to; }
+
+    int count(DiffKind kind) {
+        int n = 0;
+        for (DiffEntry e : entries) if (e.kind == kind) n++;
+        return n;
+    }
 }
 
 /** Sortiert Klassen wie 1, 1.1A, 2, 2.1, 8, 9 sinnvoll. */
@@ -263,6 +589,8 @@ class SubstanceTableModel extends AbstractTableModel {
     private List<Substance> rows = new ArrayList<>();
     public void setRows(List<Substance> r) { this.rows = new ArrayList<>(r); fireTableDataChanged(); }
     public Substance getRow(int r) { return rows.get(r); }
+    /** Aktuell angezeigte Zeilen (Snapshot; setRows ersetzt die Liste). */
+    public List<Substance> getRows() { return Collections.unmodifiableList(rows); }
     @Override public int getRowCount() { return rows.size(); }
     @Override public int getColumnCount() { return cols.length; }
     @Override public String getColumnName(int c) { return cols[c]; }
@@ -0,0 +1,492 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * Prüfmodus für einen Datenordner (Gate für neue Datenlieferungen).
+ * Liest alle Bereichsdateien parallel ein und prüft Schema, Kodierung,
+ * count-Werte aus index.json, Kemler-Codes gegen gefahrenzahl.json,
+ * UN-Nummern gegen ihr Bereichslabel und doppelte Einträge.
+ * Schreibt einen maschinenlesbaren Bericht (JSON) und erzeugt auf Wunsch
+ * missing_gefahrenzahl.json neu.
+ *
+ * Aufruf: java DataValidator &lt;datenordner&gt; [--report bericht.json] [--write-missing]
+ * Exit-Code: 0 = keine Fehler, 1 = Fehler gefunden, 2 = Abbruch.
+ */
+class DataValidator {
+
+    static final List<String> COLUMNS = List.of("un_number", "gefahrenzahl", "klasse", "bezeichnung");
+    private static final Pattern UN_PATTERN = Pattern.compile("\\d{4}");
+
+    private final Path indexPath;
+    private final int threads;
+
+    public DataValidator(File dataRoot, int threads) throws IOException {
+        if (dataRoot == null) throw new IOException("Kein Datenordner angegeben.");
+        this.indexPath = DataRepository.findIndexJson(dataRoot.toPath());
+        if (indexPath == null) throw new IOException("index.json nicht gefunden.");
+        this.threads = Math.max(1, threads);
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.err.println("Aufruf: java DataValidator <datenordner> [--report bericht.json] [--write-missing]");
+            System.exit(2);
+        }
+        File dir = new File(args[0]);
+        Path reportPath = Paths.get("validation_report.json");
+        boolean writeMissing = false;
+        for (int a = 1; a < args.length; a++) {
+            if ("--report".equals(args[a]) && a + 1 < args.length) reportPath = Paths.get(args[++a]);
+            else if ("--write-missing".equals(args[a])) writeMissing = true;
+        }
+        try {
+            DataValidator v = new DataValidator(dir, Runtime.getRuntime().availableProcessors());
+            ValidationReport rep = v.run();
+            rep.writeTo(reportPath);
+            if (writeMissing) {
+                Path mp = v.indexPath.getParent().resolve("missing_gefahrenzahl.json");
+                v.writeMissing(rep, mp);
+                System.out.println("Neu erzeugt: " + mp);
+            }
+            System.out.println(rep.summaryLine());
+            System.out.println("Bericht: " + reportPath.toAbsolutePath());
+            System.exit(rep.errorCount() > 0 ? 1 : 0);
+        } catch (Exception e) {
+            System.err.println("Validierung abgebrochen: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /** Führt alle Prüfungen aus. */
+    public ValidationReport run() throws IOException {
+        long t0 = System.nanoTime();
+        ValidationReport rep = new ValidationReport(indexPath.getParent());
+        Path dir = indexPath.getParent();
+
+        Map<String, Object> idxMap = DataRepository.asObj(JSONMini.parse(Files.readString(indexPath, StandardCharsets.UTF_8)));
+        List<IndexRange> ranges = new ArrayList<>();
+        for (Object o : DataRepository.asArr(idxMap.get("ranges"))) {
+            Map<String, Object> m = DataRepository.asObj(o);
+            int count = (m.get("count") instanceof Number) ? ((Number) m.get("count")).intValue() : -1;
+            ranges.add(new IndexRange(DataRepository.str(m.get("range")), DataRepository.str(m.get("file")), count));
+        }
+
+        Set<String> codes = loadHazardCodes(dir, rep);
+        Map<String, String> oldHints = loadOldHints(dir);
+
+        // Bereichsdateien parallel prüfen
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "validator");
+            t.setDaemon(true);
+            return t;
+        });
+        List<Future<FileResult>> futures = new ArrayList<>();
+        for (IndexRange r : ranges) {
+            futures.add(pool.submit(() -> checkFile(dir, r, codes)));
+        }
+        try {
+            for (Future<FileResult> f : futures) {
+                rep.files.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Validierung unterbrochen.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Validierung fehlgeschlagen: " + e.getCause(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Dateien im Ordner, die nicht im Index stehen
+        Set<String> listed = new HashSet<>();
+        for (IndexRange r : ranges) listed.add(r.fileName);
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "[0-9][0-9][0-9][0-9]-[0-9][0-9][0-9][0-9].json")) {
+            List<String> orphans = new ArrayList<>();
+            for (Path p : ds) {
+                String fn = p.getFileName().toString();
+                if (!listed.contains(fn)) orphans.add(fn);
+            }
+            Collections.sort(orphans);
+            for (String fn : orphans) {
+                rep.add(Severity.WARNING, "orphan_file", fn, null, "Bereichsdatei ist nicht in index.json gelistet");
+            }
+        }
+
+        // Dubletten über alle Dateien
+        Map<String, ValidationRow> firstByUn = new HashMap<>();
+        Map<String, Set<String>> contentByUn = new HashMap<>();
+        Set<String> multiUn = new HashSet<>();
+        for (FileResult fr : rep.files) {
+            rep.issues.addAll(fr.issues);
+            for (ValidationRow row : fr.rows) {
+                ValidationRow prev = firstByUn.putIfAbsent(row.un, row);
+                // alle bisherigen Inhalte je UN, nicht nur der erste Eintrag
+                boolean seen = !contentByUn.computeIfAbsent(row.un, k -> new HashSet<>()).add(row.contentKey());
+                if (prev == null) continue;
+                multiUn.add(row.un);
+                if (!prev.range.fileName.equals(row.range.fileName)) {
+                    rep.add(Severity.ERROR, "duplicate_un", row.range.fileName, row.un,
+                            "UN-Nummer bereits in " + prev.range.fileName + " vorhanden");
+                } else if (seen) {
+                    rep.add(Severity.WARNING, "duplicate", row.range.fileName, row.un,
+                            "Identischer Eintrag mehrfach vorhanden");
+                }
+            }
+        }
+        rep.unWithMultipleEntries = multiUn.size();
+
+        // Fehlende Gefahrenzahlen (Grundlage für missing_gefahrenzahl.json)
+        for (FileResult fr : rep.files) {
+            for (ValidationRow row : fr.rows) {
+                if (row.hazard != null) continue;
+                String hint = oldHints.containsKey(row.un) ? oldHints.get(row.un) : DataRepository.hintFromName(row.name);
+                rep.missing.add(new MissingRow(row, hint));
+            }
+        }
+
+        rep.durationMs = (System.nanoTime() - t0) / 1_000_000;
+        return rep;
+    }
+
+    private static Set<String> loadHazardCodes(Path dir, ValidationReport rep) throws IOException {
+        Set<String> codes = new HashSet<>();
+        Path hz = dir.resolve("gefahrenzahl.json");
+        if (!Files.exists(hz)) {
+            rep.add(Severity.ERROR, "missing_file", "gefahrenzahl.json", null, "gefahrenzahl.json fehlt – Kemler-Prüfung übersprungen");
+            return null;
+        }
+        Map<String, Object> hm = DataRepository.asObj(JSONMini.parse(Files.readString(hz, StandardCharsets.UTF_8)));
+        for (Object co : DataRepository.asArr(hm.get("codes"))) {
+            codes.add(DataRepository.str(DataRepository.asObj(co).get("code")));
+        }
+        return codes;
+    }
+
+    private static Map<String, String> loadOldHints(Path dir) throws IOException {
+        Map<String, String> hints = new HashMap<>();
+        Path missing = dir.resolve("missing_gefahrenzahl.json");
+        if (!Files.exists(missing)) return hints;
+        try {
+            Map<String, Object> mm = DataRepository.asObj(JSONMini.parse(Files.readString(missing, StandardCharsets.UTF_8)));
+            for (Object ro : DataRepository.asArr(mm.get("rows"))) {
+                Map<String, Object> r = DataRepository.asObj(ro);
+                String hint = DataRepository.strOrNull(r.get("hint"));
+                if (hint != null && !hint.isBlank()) hints.put(DataRepository.str(r.get("un_number")), hint);
+            }
+        } catch (RuntimeException ignored) {
+            // alte Datei unlesbar → Hinweise werden neu abgeleitet
+        }
+        return hints;
+    }
+
+    /** Prüft eine einzelne Bereichsdatei (läuft im Thread-Pool). */
+    private static FileResult checkFile(Path dir, IndexRange r, Set<String> codes) throws IOException {
+        FileResult fr = new FileResult(r);
+        Path rp = dir.resolve(r.fileName);
+        if (!Files.exists(rp)) {
+            fr.add(Severity.ERROR, "missing_file", null, "Bereichsdatei aus index.json fehlt");
+            return fr;
+        }
+
+        // Kodierung: BOM, ungültiges UTF-8, Ersatzzeichen
+        byte[] bytes = Files.readAllBytes(rp);
+        int off = 0;
+        if (bytes.length >= 3 && (bytes[0] & 0xFF) == 0xEF && (bytes[1] & 0xFF) == 0xBB && (bytes[2] & 0xFF) == 0xBF) {
+            fr.add(Severity.WARNING, "encoding", null, "UTF-8-BOM am Dateianfang");
+            off = 3;
+        }
+        String text;
+        try {
+            text = StandardCharsets.UTF_8.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPORT)
+                    .onUnmappableCharacter(CodingErrorAction.REPORT)
+                    .decode(ByteBuffer.wrap(bytes, off, bytes.length - off)).toString();
+        } catch (CharacterCodingException e) {
+            fr.add(Severity.ERROR, "encoding", null, "Kein gültiges UTF-8");
+            text = new String(bytes, off, bytes.length - off, StandardCharsets.UTF_8);
+        }
+
+        Map<String, Object> rm;
+        try {
+            Object ro = JSONMini.parse(text);
+            if (!(ro instanceof Map)) {
+                fr.add(Severity.ERROR, "schema", null, "Wurzelelement ist kein Objekt");
+                return fr;
+            }
+            rm = DataRepository.asObj(ro);
+        } catch (RuntimeException e) {
+            fr.add(Severity.ERROR, "schema", null, "JSON nicht lesbar: " + e.getMessage());
+            return fr;
+        }
+
+        if (!(rm.get("rows") instanceof List)) {
+            fr.add(Severity.ERROR, "schema", null, "Feld 'rows' fehlt oder ist kein Array");
+            return fr;
+        }
+        if (rm.containsKey("columns") && !COLUMNS.equals(rm.get("columns"))) {
+            fr.add(Severity.WARNING, "schema", null, "Abweichende 'columns': " + rm.get("columns"));
+        }
+
+        int[] bounds = DataRepository.parseRangeLabel(r.rangeLabel);
+        if (bounds == null) {
+            fr.add(Severity.WARNING, "schema", null, "Bereichslabel nicht auswertbar: " + r.rangeLabel);
+        }
+
+        List<Object> rows = DataRepository.asArr(rm.get("rows"));
+        for (Object eo : rows) {
+            if (!(eo instanceof Map)) {
+                fr.add(Severity.ERROR, "schema", null, "Zeile ist kein Objekt");
+                continue;
+            }
+            Map<String, Object> e = DataRepository.asObj(eo);
+            Object unO = e.get("un_number"), gzO = e.get("gefahrenzahl"), klO = e.get("klasse"), nmO = e.get("bezeichnung");
+            String un = DataRepository.str(unO);
+            if (!(unO instanceof String) || !UN_PATTERN.matcher(un).matches()) {
+                fr.add(Severity.ERROR, "schema", un, "un_number muss eine vierstellige Zeichenkette sein");
+            }
+            if (!(klO instanceof String) || ((String) klO).isBlank()) {
+                fr.add(Severity.ERROR, "schema", un, "klasse fehlt");
+            }
+            if (!(nmO instanceof String) || ((String) nmO).isBlank()) {
+                fr.add(Severity.ERROR, "schema", un, "bezeichnung fehlt");
+            }
+            if (gzO != null && !(gzO instanceof String)) {
+                fr.add(Severity.ERROR, "schema", un, "gefahrenzahl muss Zeichenkette oder null sein");
+            }
+            String gz = DataRepository.strOrNull(gzO);
+            String kl = DataRepository.str(klO);
+            String name = DataRepository.str(nmO);
+            if (hasSuspiciousChars(name) || hasSuspiciousChars(kl)) {
+                fr.add(Severity.WARNING, "encoding", un, "Steuer- oder Ersatzzeichen im Text");
+            }
+
+            // Kemler-Code bekannt? Kombinierte Angaben ("60 + 66", "X423 + 423") teilweise prüfen
+            if (gz != null && codes != null && !codes.contains(gz)) {
+                for (String part : gz.split("\\+")) {
+                    String code = part.trim();
+                    if (code.isEmpty()) {
+                        fr.add(Severity.ERROR, "unknown_kemler", un, "Gefahrenzahl " + gz + " enthält einen leeren Teil");
+                    } else if (codes.contains(code)) {
+                        continue;
+                    } else if (code.startsWith("X") && codes.contains(code.substring(1))) {
+                        fr.add(Severity.WARNING, "unknown_kemler", un, "X-Variante " + code + " nicht gelistet, nur " + code.substring(1));
+                    } else {
+                        fr.add(Severity.ERROR, "unknown_kemler", un, "Gefahrenzahl " + code + " nicht in gefahrenzahl.json");
+                    }
+                }
+            }
+
+            // UN-Nummer im Bereich?
+            if (bounds != null && UN_PATTERN.matcher(un).matches()) {
+                int n = Integer.parseInt(un);
+                if (n < bounds[0] || n > bounds[1]) {
+                    fr.add(Severity.ERROR, "un_out_of_range", un, "UN " + un + " liegt außerhalb von " + r.rangeLabel);
+                }
+            }
+            fr.rows.add(new ValidationRow(r, un, gz, kl, name));
+        }
+
+        fr.rowCount = rows.size();
+        if (r.count >= 0 && r.count != rows.size()) {
+            fr.add(Severity.ERROR, "count_mismatch", null,
+                    "index.json nennt " + r.count + " Einträge, Datei enthält " + rows.size());
+        }
+        if (rm.get("count") instanceof Number && ((Number) rm.get("count")).intValue() != rows.size()) {
+            fr.add(Severity.ERROR, "count_mismatch", null,
+                    "Feld 'count' nennt " + rm.get("count") + " Einträge, Datei enthält " + rows.size());
+        }
+        return fr;
+    }
+
+    private static boolean hasSuspiciousChars(String s) {
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            if (c == '\uFFFD' || (c < 0x20 && c != '\t')) return true;
+        }
+        return false;
+    }
+
+    /** Schreibt missing_gefahrenzahl.json im bisherigen Schema neu. */
+    void writeMissing(ValidationReport rep, Path target) throws IOException {
+        Map<String, Integer> byMain = new LinkedHashMap<>();
+        int class1 = 0;
+        List<Object> rows = new ArrayList<>();
+        for (MissingRow mr : rep.missing) {
+            ValidationRow r = mr.row;
+            String main = r.klass.split("\\.")[0];
+            byMain.merge(main, 1, Integer::sum);
+            if ("1".equals(main)) class1++;
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("range", r.range.rangeLabel);
+            m.put("file", r.range.fileName);
+            m.put("un_number", r.un);
+            m.put("klasse", r.klass);
+            m.put("bezeichnung", r.name);
+            m.put("gefahrenzahl", null);
+            m.put("hint", mr.hint);
+            rows.add(m);
+        }
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total_missing", rows.size());
+        summary.put("missing_class1", class1);
+        summary.put("missing_other_classes", rows.size() - class1);
+        summary.put("by_main_class", byMain);
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("title", "Fehlende Gefahrnummern (aus UN-Nummern JSON-Bestand)");
+        root.put("generated", LocalDate.now().toString());
+        root.put("summary", summary);
+        root.put("columns", List.of("range", "file", "un_number", "klasse", "bezeichnung", "gefahrenzahl", "hint"));
+        root.put("rows", rows);
+        try (Writer w = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            JSONMini.write(root, w);
+        }
+    }
+}
+
+/* Models für den Prüfmodus */
+
+enum Severity { ERROR, WARNING; }
+
+class ValidationIssue {
+    final Severity severity;
+    final String check;
+    final String file;
+    final String unNumber;
+    final String message;
+    ValidationIssue(Severity sev, String check, String file, String un, String msg) {
+        this.severity = sev;
+        this.check = check;
+        this.file = file;
+        this.unNumber = un;
+        this.message = msg;
+    }
+}
+
+class ValidationRow {
+    final IndexRange range;
+    final String un;
+    final String hazard;
+    final String klass;
+    final String name;
+    ValidationRow(IndexRange range, String un, String hz, String kl, String name) {
+        this.range = range;
+        this.un = un;
+        this.hazard = hz;
+        this.klass = kl;
+        this.name = name;
+    }
+    /** Gefahrenzahl, Klasse und Bezeichnung als Vergleichsschlüssel. */
+    String contentKey() {
+        return (hazard == null ? "" : hazard) + '\u0000' + klass + '\u0000' + name;
+    }
+}
+
+class MissingRow {
+    final ValidationRow row;
+    final String hint;
+    MissingRow(ValidationRow row, String hint) { this.row = row; this.hint = hint; }
+}
+
+/** Ergebnis einer einzelnen Bereichsdatei. */
+class FileResult {
+    final IndexRange range;
+    final List<ValidationIssue> issues = new ArrayList<>();
+    final List<ValidationRow> rows = new ArrayList<>();
+    int rowCount = -1;
+    FileResult(IndexRange r) { this.range = r; }
+    void add(Severity sev, String check, String un, String msg) {
+        issues.add(new ValidationIssue(sev, check, range.fileName, un, msg));
+    }
+}
+
+/** Gesamtergebnis inkl. JSON-Ausgabe. */
+class ValidationReport {
+    final Path dataDir;
+    final List<FileResult> files = new ArrayList<>();
+    final List<ValidationIssue> issues = new ArrayList<>();
+    final List<MissingRow> missing = new ArrayList<>();
+    int unWithMultipleEntries;
+    long durationMs;
+
+    ValidationReport(Path dataDir) { this.dataDir = dataDir; }
+
+    void add(Severity sev, String check, String file, String un, String msg) {
+        issues.add(new ValidationIssue(sev, check, file, un, msg));
+    }
+
+    int count(Severity sev) {
+        int n = 0;
+        for (ValidationIssue i : issues) if (i.severity == sev) n++;
+        return n;
+    }
+    int errorCount() { return count(Severity.ERROR); }
+
+    int rowCount() {
+        int n = 0;
+        for (FileResult f : files) n += Math.max(0, f.rowCount);
+        return n;
+    }
+
+    String summaryLine() {
+        return files.size() + " Dateien, " + rowCount() + " Einträge, "
+                + count(Severity.ERROR) + " Fehler, " + count(Severity.WARNING) + " Warnungen ("
+                + durationMs + " ms)";
+    }
+
+    void writeTo(Path target) throws IOException {
+        Map<String, Integer> byCheck = new TreeMap<>();
+        for (ValidationIssue i : issues) byCheck.merge(i.check, 1, Integer::sum);
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("files", files.size());
+        summary.put("rows", rowCount());
+        summary.put("errors", count(Severity.ERROR));
+        summary.put("warnings", count(Severity.WARNING));
+        summary.put("missing_gefahrenzahl", missing.size());
+        summary.put("un_with_multiple_entries", unWithMultipleEntries);
+        summary.put("by_check", byCheck);
+
+        List<Object> fileList = new ArrayList<>();
+        for (FileResult f : files) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("range", f.range.rangeLabel);
+            m.put("file", f.range.fileName);
+            m.put("index_count", f.range.count);
+            m.put("rows", f.rowCount);
+            m.put("errors", (int) f.issues.stream().filter(i -> i.severity == Severity.ERROR).count());
+            fileList.add(m);
+        }
+
+        List<Object> issueList = new ArrayList<>();
+        for (ValidationIssue i : issues) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("severity", i.severity.name());
+            m.put("check", i.check);
+            m.put("file", i.file);
+            m.put("un_number", i.unNumber);
+            m.put("message", i.message);
+            issueList.add(m);
+        }
+
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("title", "Validierungsbericht");
+        root.put("generated", LocalDate.now().toString());
+        root.put("data_dir", dataDir.toAbsolutePath().toString());
+        root.put("duration_ms", durationMs);
+        root.put("summary", summary);
+        root.put("files", fileList);
+        root.put("issues", issueList);
+        try (Writer w = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            JSONMini.write(root, w);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Exportiert Stofflisten als CSV, JSON (Schema der Bereichsdateien) oder
+ * druckbares HTML. Die Zeilen werden direkt aus den Listen der Ausgabe
+ * Feld für Feld in einen gepufferten Channel-Writer geschrieben – es wird
+ * kein Gesamttext im Speicher aufgebaut.
+ *
+ * Der Exporter arbeitet auf der beim Erzeugen übergebenen Ausgabe; ein
+ * Umschalten der Ausgabe während des Exports wirkt sich nicht aus.
+ */
+class Exporter {
+
+    /** Rückmeldung alle {@link #PROGRESS_STEP} Zeilen und am Ende. */
+    interface Progress { void update(int done, int total); }
+
+    static final int PROGRESS_STEP = 500;
+
+    private final DataEdition edition;
+
+    Exporter(DataEdition edition) { this.edition = edition; }
+
+    /** Gesamter Datenbestand der Ausgabe in Reihenfolge von index.json. */
+    public void exportAll(ExportFormat fmt, Path target, Progress progress) throws IOException {
+        List<List<Substance>> parts = new ArrayList<>();
+        for (IndexRange r : edition.ranges) parts.add(edition.byRange.getOrDefault(r.rangeLabel, Collections.emptyList()));
+        write(parts, "UN-Nummern – Gesamtbestand (" + edition.name + ")", fmt, target, progress);
+    }
+
+    /** Aktuelle Ansicht oder Suchergebnis. */
+    public void export(List<Substance> rows, String title, ExportFormat fmt, Path target, Progress progress) throws IOException {
+        write(Collections.singletonList(rows), title, fmt, target, progress);
+    }
+
+    private void write(List<List<Substance>> parts, String title, ExportFormat fmt, Path target, Progress progress) throws IOException {
+        int total = 0;
+        for (List<Substance> p : parts) total += p.size();
+        try (FileChannel ch = FileChannel.open(target, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             Writer w = new BufferedWriter(Channels.newWriter(ch, StandardCharsets.UTF_8), 1 << 16)) {
+            switch (fmt) {
+                case CSV:  writeCsv(parts, total, w, progress); break;
+                case JSON: writeJson(parts, title, total, w, progress); break;
+                case HTML: writeHtml(parts, title, total, w, progress); break;
+            }
+        }
+    }
+
+    /* ----- CSV ----- */
+
+    private void writeCsv(List<List<Substance>> parts, int total, Writer w, Progress progress) throws IOException {
+        // BOM, damit Excel Umlaute korrekt erkennt; Semikolon als Trenner (dt. Gebietsschema)
+        w.write('\uFEFF');
+        w.write("un_number;gefahrenzahl;klasse;bezeichnung;hinweis\r\n");
+        int done = 0;
+        for (List<Substance> part : parts) {
+            for (Substance s : part) {
+                csvField(s.unNumber, w); w.write(';');
+                csvField(s.hazardNumber, w); w.write(';');
+                csvField(s.klass, w); w.write(';');
+                csvField(s.name, w); w.write(';');
+                csvField(hint(s), w);
+                w.write("\r\n");
+                tick(++done, total, progress);
+            }
+        }
+        if (progress != null) progress.update(total, total);
+    }
+
+    private static void csvField(String v, Writer w) throws IOException {
+        if (v == null) return;
+        boolean quote = false;
+        for (int k = 0; k < v.length() && !quote; k++) {
+            char c = v.charAt(k);
+            quote = c == ';' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) { w.write(v); return; }
+        w.write('"');
+        for (int k = 0; k < v.length(); k++) {
+            char c = v.charAt(k);
+            if (c == '"') w.write('"');
+            w.write(c);
+        }
+        w.write('"');
+    }
+
+    /* ----- JSON ----- */
+
+    private void writeJson(List<List<Substance>> parts, String title, int total, Writer w, Progress progress) throws IOException {
+        w.write("{\n  \"title\": ");
+        JSONMini.quote(title, w);
+        w.write(",\n  \"generated\": ");
+        JSONMini.quote(LocalDate.now().toString(), w);
+        w.write(",\n  \"count\": ");
+        w.write(Integer.toString(total));
+        w.write(",\n  \"columns\": [\n    \"un_number\",\n    \"gefahrenzahl\",\n    \"klasse\",\n    \"bezeichnung\"\n  ],\n  \"rows\": [");
+        int done = 0;
+        for (List<Substance> part : parts) {
+            for (Substance s : part) {
+                w.write(done == 0 ? "\n    {\n      \"un_number\": " : ",\n    {\n      \"un_number\": ");
+                JSONMini.quote(s.unNumber, w);
+                w.write(",\n      \"gefahrenzahl\": ");
+                if (s.hazardNumber == null) w.write("null"); else JSONMini.quote(s.hazardNumber, w);
+                w.write(",\n      \"klasse\": ");
+                JSONMini.quote(s.klass, w);
+                w.write(",\n      \"bezeichnung\": ");
+                JSONMini.quote(s.name, w);
+                w.write("\n    }");
+                tick(++done, total, progress);
+            }
+        }
+        w.write(total == 0 ? "]\n}\n" : "\n  ]\n}\n");
+        if (progress != null) progress.update(total, total);
+    }
+
+    /* ----- HTML ----- */
+
+    private void writeHtml(List<List<Substance>> parts, String title, int total, Writer w, Progress progress) throws IOException {
+        w.write("<!DOCTYPE html>\n<html lang=\"de\">\n<head>\n<meta charset=\"utf-8\">\n<title>");
+        htmlText(title, w);
+        w.write("</title>\n<style>\n"
+                + "body{font-family:sans-serif;font-size:10pt;margin:1.5em}\n"
+                + "table{border-collapse:collapse;width:100%}\n"
+                + "th,td{border:1px solid #999;padding:3px 6px;text-align:left;vertical-align:top}\n"
+                + "th{background:#ddd}\n"
+                + "tr:nth-child(even) td{background:#f4f4f4}\n"
+                + "td.k{font-weight:bold;white-space:nowrap}\n"
+                + "@media print{thead{display:table-header-group}tr{page-break-inside:avoid}}\n"
+                + "</style>\n</head>\n<body>\n<h1>");
+        htmlText(title, w);
+        w.write("</h1>\n<p>");
+        w.write(Integer.toString(total));
+        w.write(" Stoffe – Stand ");
+        w.write(LocalDate.now().toString());
+        w.write("</p>\n<table>\n<thead><tr><th>UN-Nummer</th><th>Gefahrenzahl</th><th>Klasse</th>"
+                + "<th>Bezeichnung</th><th>Hinweis</th></tr></thead>\n<tbody>\n");
+        int done = 0;
+        for (List<Substance> part : parts) {
+            for (Substance s : part) {
+                w.write("<tr><td>");
+                htmlText(s.unNumber, w);
+                w.write("</td><td class=\"k\">");
+                htmlText(s.hazardNumber == null || s.hazardNumber.isEmpty() ? "–" : s.hazardNumber, w);
+                w.write("</td><td>");
+                htmlText(s.klass, w);
+                w.write("</td><td>");
+                htmlText(s.name, w);
+                w.write("</td><td>");
+                htmlText(hint(s), w);
+                w.write("</td></tr>\n");
+                tick(++done, total, progress);
+            }
+        }
+        w.write("</tbody>\n</table>\n<p><small>Datenquelle: index.json + Bereiche, gefahrenzahl.json</small></p>\n</body>\n</html>\n");
+        if (progress != null) progress.update(total, total);
+    }
+
+    private static void htmlText(String v, Writer w) throws IOException {
+        if (v == null) return;
+        for (int k = 0; k < v.length(); k++) {
+            char c = v.charAt(k);
+            switch (c) {
+                case '&': w.write("&amp;"); break;
+                case '<': w.write("&lt;"); break;
+                case '>': w.write("&gt;"); break;
+                case '"': w.write("&quot;"); break;
+                default: w.write(c);
+            }
+        }
+    }
+
+    /* ----- helpers ----- */
+
+    private String hint(Substance s) {
+        return s.hint != null ? s.hint : DataRepository.deriveHint(edition, s);
+    }
+
+    private static void tick(int done, int total, Progress progress) {
+        if (progress != null && done % PROGRESS_STEP == 0) progress.update(done, total);
+    }
+}
+
+enum ExportFormat {
+    CSV("csv", "CSV (Semikolon)"),
+    JSON("json", "JSON (Schema der Bereichsdateien)"),
+    HTML("html", "HTML (druckbar)");
+
+    final String extension;
+    final String label;
+    ExportFormat(String ext, String label) { this.extension = ext; this.label = label; }
+    @Override public String toString() { return label; }
+}
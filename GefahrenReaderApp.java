@@ -3,17 +3,21 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.event.TreeSelectionEvent;
 import javax.swing.event.TreeSelectionListener;
 import javax.swing.table.AbstractTableModel;
-import javax.swing.tree.DefaultMutableTreeNode;
-import javax.swing.tree.DefaultTreeModel;
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelListener;
+import javax.swing.text.Document;
+import javax.swing.text.html.HTMLEditorKit;
+import javax.swing.tree.TreeModel;
 import javax.swing.tree.TreePath;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
+import java.io.StringReader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.swing.table.DefaultTableCellRenderer;
 
 /**
@@ -32,6 +36,17 @@ public class GefahrenReaderApp extends JFrame {
     private final JButton resetBtn;
     private final JButton detailsBtn;
     private final JLabel statusLabel;
+    private JComboBox<String> editionBox;
+    private JButton exportBtn;
+
+    // Nutzungsstatistik (gemeinsam für alle Fenster) und vorgewärmte Detailansichten
+    private static final UsageStats usage = new UsageStats(UsageStats.defaultFile());
+    private static final int WARM_UP_DOCS = 100;
+    private static final int WARM_UP_BATCH = 10;
+    // je Ausgabe eine eigene Map: beim Umschalten ersetzt, nicht geleert, damit ein noch
+    // ausstehender Warm-up-Schritt nur in die alte Map schreiben kann
+    private volatile Map<Substance, Document> detailDocs = new ConcurrentHashMap<>();
+    private boolean programmaticSelection;
 
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> {
@@ -55,29 +70,15 @@ public class GefahrenReaderApp extends JFrame {
         this.repo = repo;
 
         setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override public void windowClosing(WindowEvent e) { usage.save(); }
+        });
         setSize(1100, 700);
         setLocationRelativeTo(null);
         setIconImage(new BufferedImageIcon16().get());
 
         // Left: Navigation JTree
-        DefaultMutableTreeNode root = new DefaultMutableTreeNode("Navigation");
-        DefaultMutableTreeNode byClass = new DefaultMutableTreeNode("Nach Klasse");
-        DefaultMutableTreeNode byRange = new DefaultMutableTreeNode("Nach UN-Bereich");
-        root.add(byClass);
-        root.add(byRange);
-
-        // Build class nodes
-        for (String cls : repo.getAllClassesSorted()) {
-            DefaultMutableTreeNode node = new DefaultMutableTreeNode(new NodePayload(NodeType.CLASS, cls));
-            byClass.add(node);
-        }
-        // Build range nodes (use label from index.json)
-        for (IndexRange r : repo.getRanges()) {
-            DefaultMutableTreeNode node = new DefaultMutableTreeNode(new NodePayload(NodeType.RANGE, r.rangeLabel));
-            byRange.add(node);
-        }
-
-        navTree = new JTree(new DefaultTreeModel(root));
+        navTree = new JTree(new NavTreeModel(repo));
         navTree.setRootVisible(true);
         navTree.setShowsRootHandles(true);
         navTree.setRowHeight(22);
@@ -107,7 +108,7 @@ public class GefahrenReaderApp extends JFrame {
         JScrollPane tableScroll = new JScrollPane(table);
 
         JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 8, 6));
-        JLabel searchLbl = new JLabel("UN-Nummer:");
+        JLabel searchLbl = new JLabel("UN-Nummer / Name:");
         searchField = new JTextField(10);
         searchBtn = new JButton("Suchen");
         resetBtn = new JButton("Reset");
@@ -130,6 +131,7 @@ public class GefahrenReaderApp extends JFrame {
         resetBtn.addActionListener(e -> {
             searchField.setText("");
             tableModel.setRows(currentContextList);
+            currentViewTitle = currentContextTitle;
             updateStatus();
         });
 
@@ -158,14 +160,28 @@ public class GefahrenReaderApp extends JFrame {
         add(buildToolbar(), BorderLayout.NORTH);
         add(split, BorderLayout.CENTER);
 
+        selectFirstClass();
+        startWarmup();
+    }
+
+    private void selectFirstClass() {
         // Preselect first category
         navTree.expandRow(0);
         navTree.expandRow(1);
         // If classes exist, select first class
-        if (!repo.getAllClassesSorted().isEmpty()) {
-            TreePath path = new TreePath(((DefaultTreeModel) navTree.getModel())
-                    .getPathToRoot(byClass.getFirstChild()));
-            navTree.setSelectionPath(path);
+        List<String> classes = repo.getAllClassesSorted();
+        if (!classes.isEmpty()) {
+            TreePath path = ((NavTreeModel) navTree.getModel()).pathTo(NodeType.CLASS, classes.get(0));
+            programmaticSelection = true;
+            try {
+                if (path != null) navTree.setSelectionPath(path);
+            } finally {
+                programmaticSelection = false;
+            }
+        }
+        if (!repo.getMissingRangeFiles().isEmpty()) {
+            statusLabel.setText(statusLabel.getText() + " – Warnung: "
+                    + repo.getMissingRangeFiles().size() + " Bereichsdatei(en) fehlen");
         }
     }
 
@@ -193,6 +209,65 @@ public class GefahrenReaderApp extends JFrame {
         });
         tb.add(openBtn);
         tb.addSeparator();
+
+        // Mehrere Ausgaben (z. B. ADR 2023 / 2025) nebeneinander
+        editionBox = new JComboBox<>(repo.getEditionNames().toArray(new String[0]));
+        editionBox.setSelectedItem(repo.getCurrentEditionName());
+        editionBox.setMaximumSize(new Dimension(180, 28));
+        editionBox.setToolTipText("Aktuelle Datenausgabe");
+        editionBox.addActionListener(e -> {
+            Object sel = editionBox.getSelectedItem();
+            if (sel == null || sel.equals(repo.getCurrentEditionName())) return;
+            repo.setCurrentEdition((String) sel);
+            searchField.setText("");
+            detailDocs = new ConcurrentHashMap<>();
+            navTree.setModel(new NavTreeModel(repo));
+            selectFirstClass();
+            startWarmup();
+        });
+        JButton addEditionBtn = new JButton("Ausgabe hinzufügen…");
+        addEditionBtn.addActionListener(e -> {
+            JFileChooser fc = new JFileChooser(repo.getDataRoot());
+            fc.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+            fc.setDialogTitle("Ordner mit index.json auswählen");
+            if (fc.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+            try {
+                DataEdition ed = repo.loadEdition(null, fc.getSelectedFile());
+                editionBox.addItem(ed.name);
+                editionBox.setSelectedItem(ed.name);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(this, "Fehler beim Laden:\n" + ex.getMessage(),
+                        "Fehler", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+        JButton removeEditionBtn = new JButton("Ausgabe entfernen…");
+        removeEditionBtn.addActionListener(e -> {
+            List<String> others = repo.getEditionNames();
+            others.remove(repo.getCurrentEditionName());
+            if (others.isEmpty()) {
+                JOptionPane.showMessageDialog(this, "Es ist keine weitere Ausgabe geladen.\nDie aktuelle Ausgabe kann nicht entfernt werden.",
+                        "Ausgabe entfernen", JOptionPane.INFORMATION_MESSAGE);
+                return;
+            }
+            Object sel = JOptionPane.showInputDialog(this, "Welche Ausgabe soll entfernt werden?", "Ausgabe entfernen",
+                    JOptionPane.QUESTION_MESSAGE, null, others.toArray(), others.get(0));
+            if (sel == null) return;
+            repo.removeEdition((String) sel);
+            editionBox.removeItem(sel);
+        });
+        exportBtn = new JButton("Exportieren…");
+        exportBtn.addActionListener(e -> exportDialog());
+        tb.add(exportBtn);
+        tb.addSeparator();
+
+        JButton diffBtn = new JButton("Vergleichen…");
+        diffBtn.addActionListener(e -> showEditionDiff());
+        tb.add(new JLabel(" Ausgabe: "));
+        tb.add(editionBox);
+        tb.add(addEditionBtn);
+        tb.add(removeEditionBtn);
+        tb.add(diffBtn);
+        tb.addSeparator();
         JButton about = new JButton("Info");
         about.addActionListener(e -> {
             JOptionPane.showMessageDialog(this,
@@ -206,47 +281,184 @@ public class GefahrenReaderApp extends JFrame {
         return tb;
     }
 
+    /** Fragt Umfang, Format und Zieldatei ab und exportiert im Hintergrund. */
+    private void exportDialog() {
+        String[] scopes = {"Aktuelle Ansicht", "Gesamter Datenbestand"};
+        JComboBox<String> scopeBox = new JComboBox<>(scopes);
+        JComboBox<ExportFormat> formatBox = new JComboBox<>(ExportFormat.values());
+        JPanel p = new JPanel(new GridLayout(2, 2, 6, 6));
+        p.add(new JLabel("Umfang:"));
+        p.add(scopeBox);
+        p.add(new JLabel("Format:"));
+        p.add(formatBox);
+        if (JOptionPane.showConfirmDialog(this, p, "Exportieren",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        final boolean all = scopeBox.getSelectedIndex() == 1;
+        final ExportFormat fmt = (ExportFormat) formatBox.getSelectedItem();
+        // Snapshot auf dem EDT – setRows ersetzt die Liste, verändert sie aber nicht;
+        // Ausgabe mit festhalten, damit Hinweise und Gesamtbestand zur Ansicht passen
+        final List<Substance> view = tableModel.getRows();
+        final DataEdition edition = repo.getCurrentEdition();
+        final String title = all ? null : "UN-Nummern – " + currentViewTitle;
+
+        JFileChooser fc = new JFileChooser(repo.getDataRoot());
+        fc.setDialogTitle("Export speichern");
+        fc.setSelectedFile(new File(all ? "gefahrenreader_gesamt." + fmt.extension : "gefahrenreader_ansicht." + fmt.extension));
+        if (fc.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File f = fc.getSelectedFile();
+        if (!f.getName().contains(".")) f = new File(f.getParentFile(), f.getName() + "." + fmt.extension);
+        final File target = f;
+
+        exportBtn.setEnabled(false);
+        new SwingWorker<Void, int[]>() {
+            @Override protected Void doInBackground() throws Exception {
+                Exporter ex = new Exporter(edition);
+                Exporter.Progress pr = (done, total) -> publish(new int[]{done, total});
+                if (all) ex.exportAll(fmt, target.toPath(), pr);
+                else ex.export(view, title, fmt, target.toPath(), pr);
+                return null;
+            }
+            @Override protected void process(List<int[]> chunks) {
+                int[] last = chunks.get(chunks.size() - 1);
+                statusLabel.setText("Export: " + last[0] + " / " + last[1] + " Stoffe …");
+            }
+            @Override protected void done() {
+                exportBtn.setEnabled(true);
+                try {
+                    get();
+                    statusLabel.setText("Exportiert nach " + target.getAbsolutePath());
+                } catch (Exception ex) {
+                    Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+                    statusLabel.setText("Export fehlgeschlagen.");
+                    JOptionPane.showMessageDialog(GefahrenReaderApp.this, "Fehler beim Export:\n" + cause.getMessage(),
+                            "Fehler", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /** Zeigt Änderungen zwischen zwei geladenen Ausgaben. */
+    private void showEditionDiff() {
+        List<String> names = repo.getEditionNames();
+        if (names.size() < 2) {
+            JOptionPane.showMessageDialog(this, "Für einen Vergleich bitte zuerst eine weitere Ausgabe hinzufügen.",
+                    "Vergleichen", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JComboBox<String> fromBox = new JComboBox<>(names.toArray(new String[0]));
+        JComboBox<String> toBox = new JComboBox<>(names.toArray(new String[0]));
+        toBox.setSelectedItem(repo.getCurrentEditionName());
+        fromBox.setSelectedIndex(toBox.getSelectedIndex() == 0 ? 1 : 0);
+        JPanel p = new JPanel(new GridLayout(2, 2, 6, 6));
+        p.add(new JLabel("Von:"));
+        p.add(fromBox);
+        p.add(new JLabel("Nach:"));
+        p.add(toBox);
+        if (JOptionPane.showConfirmDialog(this, p, "Ausgaben vergleichen",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        EditionDiff d = repo.diff((String) fromBox.getSelectedItem(), (String) toBox.getSelectedItem());
+        StringBuilder sb = new StringBuilder();
+        sb.append(d.from).append(" → ").append(d.to).append(": ")
+          .append(d.count(DiffKind.ADDED)).append(" neu, ")
+          .append(d.count(DiffKind.REMOVED)).append(" entfallen, ")
+          .append(d.count(DiffKind.CHANGED)).append(" geändert (")
+          .append(d.changedRanges).append(" von ").append(d.changedRanges + d.unchangedRanges)
+          .append(" Bereichen betroffen)\n\n");
+        for (DiffEntry en : d.entries) {
+            switch (en.kind) {
+                case ADDED:   sb.append("+ ").append(diffLine(en.after)); break;
+                case REMOVED: sb.append("- ").append(diffLine(en.before)); break;
+                case CHANGED: sb.append("~ ").append(diffLine(en.before)).append("\n  → ").append(diffLine(en.after)); break;
+            }
+            sb.append('\n');
+        }
+        JTextArea area = new JTextArea(sb.toString());
+        area.setEditable(false);
+        area.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        area.setCaretPosition(0);
+        JScrollPane sp = new JScrollPane(area);
+        sp.setPreferredSize(new Dimension(720, 420));
+        JOptionPane.showMessageDialog(this, sp, "Vergleich", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    private static String diffLine(Substance s) {
+        String kemler = (s.hazardNumber == null || s.hazardNumber.isEmpty()) ? "–" : s.hazardNumber;
+        return s.unNumber + "  [" + kemler + " | " + s.klass + "]  " + s.name;
+    }
+
     // Current context (rows currently shown on the right)
     private List<Substance> currentContextList = new ArrayList<>();
+    // Titel des Kontexts und der angezeigten Ansicht (für den Export, unabhängig von der Statuszeile)
+    private String currentContextTitle = "";
+    private String currentViewTitle = "";
+    // Knoten des Kontexts, um Suchtreffer des Repositories darauf einzugrenzen
+    private NodeType currentContextType;
+    private String currentContextValue;
 
     private void filterByUn(String query) {
         if (query == null || query.isEmpty()) {
             tableModel.setRows(currentContextList);
+            currentViewTitle = currentContextTitle;
             updateStatus();
             return;
         }
         String q = query.trim();
-        List<Substance> filtered = currentContextList.stream()
-                .filter(s -> s.unNumber.startsWith(q))
-                .collect(Collectors.toList());
+        // Ziffern: Präfixsuche im sortierten UN-Index, sonst Suche in der Bezeichnung
+        boolean byUn = q.chars().allMatch(Character::isDigit);
+        if (byUn && q.length() == 4 && !repo.getByUN(q).isEmpty()) usage.record(UsageStats.UN, q);
+        List<Substance> filtered = new ArrayList<>();
+        for (Substance s : byUn ? repo.findByUnPrefix(q) : repo.searchByName(q)) {
+            if (inCurrentContext(s)) filtered.add(s);
+        }
         tableModel.setRows(filtered);
-        statusLabel.setText("Gefiltert nach UN " + q + " – " + filtered.size() + " Treffer");
+        if (byUn) {
+            currentViewTitle = currentContextTitle + ", UN " + q + "…";
+            statusLabel.setText("Gefiltert nach UN " + q + " – " + filtered.size() + " Treffer");
+        } else {
+            currentViewTitle = currentContextTitle + ", Bezeichnung „" + q + "“";
+            statusLabel.setText("Gefiltert nach Bezeichnung „" + q + "“ – " + filtered.size() + " Treffer");
+        }
+    }
+
+    private boolean inCurrentContext(Substance s) {
+        if (currentContextType == NodeType.CLASS) return s.klass.equals(currentContextValue);
+        if (currentContextType == NodeType.RANGE) return s.rangeLabel.equals(currentContextValue);
+        return true;
     }
 
     private class NavListener implements TreeSelectionListener {
         @Override public void valueChanged(TreeSelectionEvent e) {
-            Object nodeObj = navTree.getLastSelectedPathComponent();
-            if (!(nodeObj instanceof DefaultMutableTreeNode)) return;
-            DefaultMutableTreeNode node = (DefaultMutableTreeNode) nodeObj;
-            Object user = node.getUserObject();
+            Object user = navTree.getLastSelectedPathComponent();
             if (user instanceof NodePayload) {
                 NodePayload np = (NodePayload) user;
+                if (!programmaticSelection) {
+                    if (np.type == NodeType.CLASS) usage.record(UsageStats.CLASS, np.value);
+                    else if (np.type == NodeType.RANGE) usage.record(UsageStats.RANGE, np.value);
+                }
                 switch (np.type) {
                     case CLASS:
                         List<Substance> byCls = repo.getByClass(np.value);
                         currentContextList = byCls;
+                        currentContextTitle = currentViewTitle = "Klasse " + np.value;
+                        currentContextType = NodeType.CLASS;
+                        currentContextValue = np.value;
                         tableModel.setRows(byCls);
                         statusLabel.setText("Klasse " + np.value + " – " + byCls.size() + " Stoffe");
                         break;
                     case RANGE:
                         List<Substance> byRange = repo.getByRange(np.value);
                         currentContextList = byRange;
+                        currentContextTitle = currentViewTitle = "Bereich " + np.value;
+                        currentContextType = NodeType.RANGE;
+                        currentContextValue = np.value;
                         tableModel.setRows(byRange);
                         statusLabel.setText("Bereich " + np.value + " – " + byRange.size() + " Stoffe");
                         break;
+                    default:
+                        // Click on category headers / groups – do nothing
                 }
-            } else {
-                // Click on category headers – do nothing
             }
         }
     }
@@ -256,7 +468,23 @@ public class GefahrenReaderApp extends JFrame {
         if (viewRow < 0) return;
         int modelRow = table.convertRowIndexToModel(viewRow);
         Substance s = tableModel.getRow(modelRow);
+        usage.record(UsageStats.UN, s.unNumber);
+
+        JTextPane pane = new JTextPane();
+        pane.setContentType("text/html");
+        // vorgewärmtes Dokument nur einmal verwenden
+        Document doc = detailDocs.remove(s);
+        if (doc != null) pane.setDocument(doc);
+        else pane.setText(buildDetailHtml(s));
+        pane.setEditable(false);
+        pane.setBorder(new EmptyBorder(10,10,10,10));
+        JScrollPane sp = new JScrollPane(pane);
+        sp.setPreferredSize(new Dimension(500, 320));
+
+        JOptionPane.showMessageDialog(this, sp, "Details", JOptionPane.PLAIN_MESSAGE);
+    }
 
+    private String buildDetailHtml(Substance s) {
         String kemler = (s.hazardNumber == null || s.hazardNumber.isEmpty()) ? "–" : s.hazardNumber;
         String kemlerDesc = repo.getHazardDescription(kemler);
         if (kemlerDesc == null && kemler.startsWith("X")) {
@@ -279,16 +507,73 @@ public class GefahrenReaderApp extends JFrame {
         sb.append("<hr>");
         sb.append("<small>Datenquelle: index.json + Bereiche, gefahrenzahl.json</small>");
         sb.append("</body></html>");
+        return sb.toString();
+    }
 
-        JTextPane pane = new JTextPane();
-        pane.setContentType("text/html");
-        pane.setText(sb.toString());
-        pane.setEditable(false);
-        pane.setBorder(new EmptyBorder(10,10,10,10));
-        JScrollPane sp = new JScrollPane(pane);
-        sp.setPreferredSize(new Dimension(500, 320));
+    /**
+     * Wärmt die zuletzt häufig genutzten Klassen, Bereiche und UN-Nummern vor:
+     * Baumknoten und Stylesheet auf dem EDT, die HTML-Texte in einem
+     * Hintergrund-Thread mit niedriger Priorität, die Dokumente selbst wieder
+     * in kleinen Portionen auf dem EDT (Swing ist nicht threadsicher). Zuerst die häufigen
+     * UN-Nummern (höchstens die Hälfte des Budgets), der Rest gleichmäßig auf
+     * die ersten sichtbaren Zeilen jeder häufigen Klasse und jedes Bereichs.
+     */
+    private void startWarmup() {
+        List<String> uns = usage.top(UsageStats.UN, 20);
+        List<String> classes = usage.top(UsageStats.CLASS, 5);
+        List<String> ranges = usage.top(UsageStats.RANGE, 5);
+        if (uns.isEmpty() && classes.isEmpty() && ranges.isEmpty()) return;
+
+        NavTreeModel model = (NavTreeModel) navTree.getModel();
+        for (String c : classes) model.pathTo(NodeType.CLASS, c);
+        for (String r : ranges) model.pathTo(NodeType.RANGE, r);
+
+        // erster Aufbau lädt default.css in das gemeinsame Stylesheet – hier statt beim ersten Klick
+        new HTMLEditorKit().getStyleSheet();
+
+        final Map<Substance, Document> docs = detailDocs;
+        Thread t = new Thread(() -> {
+            List<Substance> targets = new ArrayList<>();
+            for (String un : uns) targets.addAll(repo.getByUN(un));
+            if (targets.size() > WARM_UP_DOCS / 2) targets.subList(WARM_UP_DOCS / 2, targets.size()).clear();
+            List<List<Substance>> lists = new ArrayList<>();
+            for (String c : classes) lists.add(repo.getByClass(c));
+            for (String r : ranges) lists.add(repo.getByRange(r));
+            if (!lists.isEmpty()) {
+                int perList = Math.max(1, (WARM_UP_DOCS - targets.size()) / lists.size());
+                for (List<Substance> l : lists) targets.addAll(l.subList(0, Math.min(perList, l.size())));
+            }
+            // hier nur die HTML-Texte; Documents entstehen auf dem EDT
+            Map<Substance, String> html = new LinkedHashMap<>();
+            for (Substance s : targets) {
+                if (html.size() >= WARM_UP_DOCS || docs != detailDocs) break;
+                html.putIfAbsent(s, buildDetailHtml(s));
+            }
+            List<Map.Entry<Substance, String>> entries = new ArrayList<>(html.entrySet());
+            SwingUtilities.invokeLater(() -> buildWarmDocs(docs, entries, 0));
+        }, "warmup");
+        t.setPriority(Thread.MIN_PRIORITY);
+        t.setDaemon(true);
+        t.start();
+    }
 
-        JOptionPane.showMessageDialog(this, sp, "Details", JOptionPane.PLAIN_MESSAGE);
+    /** Baut vorgewärmte Detaildokumente portionsweise auf dem EDT, damit die Oberfläche reagiert. */
+    private void buildWarmDocs(Map<Substance, Document> docs, List<Map.Entry<Substance, String>> html, int from) {
+        if (docs != detailDocs) return; // inzwischen umgeschaltet
+        HTMLEditorKit kit = new HTMLEditorKit();
+        int to = Math.min(html.size(), from + WARM_UP_BATCH);
+        for (int k = from; k < to; k++) {
+            Map.Entry<Substance, String> e = html.get(k);
+            if (docs.containsKey(e.getKey())) continue;
+            try {
+                Document doc = kit.createDefaultDocument();
+                kit.read(new StringReader(e.getValue()), doc, 0);
+                docs.put(e.getKey(), doc);
+            } catch (Exception ex) {
+                return; // Vorwärmen ist optional
+            }
+        }
+        if (to < html.size()) SwingUtilities.invokeLater(() -> buildWarmDocs(docs, html, to));
     }
 
     /** Aktualisiert die Statusleiste je nach Filter/ Kontext. */
@@ -359,13 +644,149 @@ public class GefahrenReaderApp extends JFrame {
 
 /* ======== Support classes for GefahrenReaderApp ======== */
 
-enum NodeType { CLASS, RANGE; }
+enum NodeType { CLASS, RANGE, HEADER, GROUP; }
 
 class NodePayload {
     final NodeType type;
     final String value;
+    int count = -1; // Anzahl Stoffe, wird vom NavTreeModel beim Aufklappen gesetzt
     NodePayload(NodeType t, String v) { this.type = t; this.value = v; }
-    public String toString() { return value; }
+    public String toString() { return count < 0 ? value : value + "  (" + count + ")"; }
+}
+
+/**
+ * Lazy TreeModel für die Navigation. Kinder und Zähler werden erst beim
+ * Aufklappen aus den Repository-Indizes ermittelt und dann gecacht.
+ * Bei sehr vielen Einträgen werden Bereiche nach Tausendern → Hundertern
+ * und Klassen nach Haupt- → Unterklasse gruppiert.
+ */
+class NavTreeModel implements TreeModel {
+
+    static final int GROUP_THRESHOLD = 64;
+    private static final int MAX_GROUP_LEVEL = 2;
+
+    private final DataRepository repo;
+    private final NodePayload root = new NodePayload(NodeType.HEADER, "Navigation");
+    private final NodePayload classHeader = new NodePayload(NodeType.HEADER, "Nach Klasse");
+    private final NodePayload rangeHeader = new NodePayload(NodeType.HEADER, "Nach UN-Bereich");
+    private final Map<NodePayload, List<NodePayload>> children = new HashMap<>();
+    private final Map<NodePayload, Group> groups = new HashMap<>();
+    private final EventListenerList listeners = new EventListenerList();
+
+    /** Inhalt eines Gruppenknotens: Werte (Klassen bzw. Bereichslabels) und Ebene. */
+    private static class Group {
+        final NodeType memberType;
+        final int level;
+        final List<String> members;
+        Group(NodeType t, int level, List<String> members) { this.memberType = t; this.level = level; this.members = members; }
+    }
+
+    NavTreeModel(DataRepository repo) { this.repo = repo; }
+
+    private List<NodePayload> childrenOf(NodePayload p) {
+        List<NodePayload> cached = children.get(p);
+        if (cached != null) return cached;
+        List<NodePayload> list;
+        if (p == root) {
+            list = List.of(classHeader, rangeHeader);
+        } else if (p == classHeader) {
+            list = group(NodeType.CLASS, 0, repo.getAllClassesSorted());
+        } else if (p == rangeHeader) {
+            List<String> labels = new ArrayList<>();
+            for (IndexRange r : repo.getRanges()) labels.add(r.rangeLabel);
+            list = group(NodeType.RANGE, 0, labels);
+        } else if (p.type == NodeType.GROUP) {
+            Group g = groups.get(p);
+            list = group(g.memberType, g.level + 1, g.members);
+        } else {
+            list = Collections.emptyList();
+        }
+        children.put(p, list);
+        return list;
+    }
+
+    private List<NodePayload> group(NodeType type, int level, List<String> values) {
+        if (values.size() > GROUP_THRESHOLD && level < MAX_GROUP_LEVEL) {
+            Map<String, List<String>> byKey = new LinkedHashMap<>();
+            for (String v : values) byKey.computeIfAbsent(groupKey(type, level, v), k -> new ArrayList<>()).add(v);
+            if (byKey.size() == 1) return group(type, level + 1, values);
+            List<NodePayload> list = new ArrayList<>(byKey.size());
+            for (Map.Entry<String, List<String>> e : byKey.entrySet()) {
+                NodePayload g = new NodePayload(NodeType.GROUP, e.getKey());
+                int sum = 0;
+                for (String v : e.getValue()) sum += size(type, v);
+                g.count = sum;
+                groups.put(g, new Group(type, level, e.getValue()));
+                list.add(g);
+            }
+            return list;
+        }
+        List<NodePayload> list = new ArrayList<>(values.size());
+        for (String v : values) {
+            NodePayload np = new NodePayload(type, v);
+            np.count = size(type, v);
+            list.add(np);
+        }
+        return list;
+    }
+
+    private static String groupKey(NodeType type, int level, String value) {
+        if (type == NodeType.RANGE) {
+            int[] b = DataRepository.parseRangeLabel(value);
+            if (b == null) return "Sonstige";
+            int step = level == 0 ? 1000 : 100;
+            int lo = b[0] / step * step;
+            return String.format("%04d–%04d", lo, lo + step - 1);
+        }
+        // Klassen: "1.1D" → Ebene 0 "Klasse 1", Ebene 1 "1.1"
+        int dot = value.indexOf('.');
+        if (level == 0) return "Klasse " + (dot < 0 ? value : value.substring(0, dot));
+        int end = dot < 0 ? value.length() : dot + 1;
+        while (end < value.length() && Character.isDigit(value.charAt(end))) end++;
+        return value.substring(0, end);
+    }
+
+    private int size(NodeType type, String value) {
+        return type == NodeType.CLASS ? repo.getByClass(value).size() : repo.getByRange(value).size();
+    }
+
+    /** Pfad zu einem Klassen- oder Bereichsknoten; klappt dabei nur die nötigen Gruppen auf. */
+    TreePath pathTo(NodeType type, String value) {
+        List<Object> path = new ArrayList<>();
+        path.add(root);
+        NodePayload cur = type == NodeType.CLASS ? classHeader : rangeHeader;
+        path.add(cur);
+        outer:
+        while (true) {
+            for (NodePayload c : childrenOf(cur)) {
+                if (c.type == type && c.value.equals(value)) {
+                    path.add(c);
+                    return new TreePath(path.toArray());
+                }
+                if (c.type == NodeType.GROUP && groups.get(c).members.contains(value)) {
+                    path.add(c);
+                    cur = c;
+                    continue outer;
+                }
+            }
+            return null;
+        }
+    }
+
+    @Override public Object getRoot() { return root; }
+    @Override public Object getChild(Object parent, int index) { return childrenOf((NodePayload) parent).get(index); }
+    @Override public int getChildCount(Object parent) { return childrenOf((NodePayload) parent).size(); }
+    @Override public boolean isLeaf(Object node) {
+        NodeType t = ((NodePayload) node).type;
+        return t == NodeType.CLASS || t == NodeType.RANGE;
+    }
+    @Override public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null) return -1;
+        return childrenOf((NodePayload) parent).indexOf(child);
+    }
+    @Override public void valueForPathChanged(TreePath path, Object newValue) { /* nicht editierbar */ }
+    @Override public void addTreeModelListener(TreeModelListener l) { listeners.add(TreeModelListener.class, l); }
+    @Override public void removeTreeModelListener(TreeModelListener l) { listeners.remove(TreeModelListener.class, l); }
 }
 
 class ZebraCellRenderer extends DefaultTableCellRenderer {
@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 /**
@@ -7,10 +9,111 @@ import java.util.*;
  */
 class JSONMini {
 
+    /**
+     * Scanner für UTF-8-Eingaben: VectorScanner (jdk.incubator.vector), falls
+     * Klasse und Modul vorhanden sind, sonst skalar. Abschaltbar mit
+     * -Djsonmini.simd=false.
+     */
+    static final ByteScanner SCALAR = new ScalarScanner();
+    static final ByteScanner SCANNER = loadScanner();
+
     public static Object parse(String json) {
         return new Parser(json).parseValue();
     }
 
+    /** Parst UTF-8-Bytes direkt (ohne vorheriges Dekodieren des ganzen Dokuments). */
+    public static Object parse(byte[] utf8) {
+        return parse(utf8, SCANNER);
+    }
+
+    static Object parse(byte[] utf8, ByteScanner scanner) {
+        return new ByteParser(utf8, scanner).parseValue();
+    }
+
+    private static ByteScanner loadScanner() {
+        if (!Boolean.parseBoolean(System.getProperty("jsonmini.simd", "true"))) return SCALAR;
+        try {
+            return (ByteScanner) Class.forName("VectorScanner").getDeclaredConstructor().newInstance();
+        } catch (Throwable t) {
+            // VectorScanner nicht mitkompiliert oder --add-modules jdk.incubator.vector fehlt
+            return SCALAR;
+        }
+    }
+
+    /**
+     * Schreibt Map/List/String/Number/Boolean/null eingerückt (2 Leerzeichen),
+     * im selben Layout wie die Bereichsdateien.
+     */
+    public static void write(Object v, Appendable out) throws IOException {
+        write(v, out, 0);
+        out.append('\n');
+    }
+
+    private static void write(Object v, Appendable out, int depth) throws IOException {
+        if (v == null) { out.append("null"); return; }
+        if (v instanceof String) { quote((String) v, out); return; }
+        if (v instanceof Number || v instanceof Boolean) { out.append(String.valueOf(v)); return; }
+        if (v instanceof Map) {
+            Map<?,?> m = (Map<?,?>) v;
+            if (m.isEmpty()) { out.append("{}"); return; }
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?,?> e : m.entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                newline(out, depth + 1);
+                quote(String.valueOf(e.getKey()), out);
+                out.append(": ");
+                write(e.getValue(), out, depth + 1);
+            }
+            newline(out, depth);
+            out.append('}');
+            return;
+        }
+        if (v instanceof Collection) {
+            Collection<?> c = (Collection<?>) v;
+            if (c.isEmpty()) { out.append("[]"); return; }
+            out.append('[');
+            boolean first = true;
+            for (Object o : c) {
+                if (!first) out.append(',');
+                first = false;
+                newline(out, depth + 1);
+                write(o, out, depth + 1);
+            }
+            newline(out, depth);
+            out.append(']');
+            return;
+        }
+        quote(String.valueOf(v), out);
+    }
+
+    private static void newline(Appendable out, int depth) throws IOException {
+        out.append('\n');
+        for (int k = 0; k < depth; k++) out.append("  ");
+    }
+
+    /** Schreibt einen JSON-String inkl. Anführungszeichen; Nicht-ASCII bleibt unverändert (UTF-8). */
+    public static void quote(String s, Appendable out) throws IOException {
+        out.append('"');
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            switch (c) {
+                case '"': out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                case '\b': out.append("\\b"); break;
+                case '\f': out.append("\\f"); break;
+                default:
+                    if (c < 0x20) out.append(String.format("\\u%04x", (int) c));
+                    else out.append(c);
+            }
+        }
+        out.append('"');
+    }
+
     /* --------- Inner Parser ---------- */
     private static class Parser {
         private final String s;
@@ -138,4 +241,188 @@ class JSONMini {
             return i < s.length() && s.charAt(i) == ch;
         }
     }
+
+    /* --------- Strukturelle Suche in UTF-8 ---------- */
+
+    /**
+     * Sucht Anführungszeichen/Backslash und überspringt Whitespace. Alle
+     * gesuchten Zeichen sind ASCII und kommen in UTF-8-Folgebytes nicht vor.
+     *
+     * Strukturzeichen ({ } [ ] , :) werden bewusst nicht gesucht: Der Parser
+     * erwartet sie genau an der Stelle direkt nach einem Wert bzw. nach dem
+     * übersprungenen Whitespace und prüft dort ein einzelnes Byte. Eine
+     * Bitmaske über 16/32 Bytes lohnt erst bei einem zweistufigen Parser, der
+     * vorab einen Index aller Strukturzeichen aufbaut (wie simdjson).
+     */
+    interface ByteScanner {
+        /** Erste Position ab from mit '"' oder '\\', sonst to. */
+        int findQuoteOrBackslash(byte[] b, int from, int to);
+        /** Erste Position ab from, die kein JSON-Whitespace ist, sonst to. */
+        int skipWhitespace(byte[] b, int from, int to);
+    }
+
+    static class ScalarScanner implements ByteScanner {
+        @Override public int findQuoteOrBackslash(byte[] b, int from, int to) {
+            for (int k = from; k < to; k++) {
+                byte c = b[k];
+                if (c == '"' || c == '\\') return k;
+            }
+            return to;
+        }
+        @Override public int skipWhitespace(byte[] b, int from, int to) {
+            for (int k = from; k < to; k++) {
+                byte c = b[k];
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') return k;
+            }
+            return to;
+        }
+    }
+
+    /* --------- Parser für UTF-8-Bytes ---------- */
+    private static class ByteParser {
+        private final byte[] b;
+        private final int n;
+        private final ByteScanner sc;
+        private int i = 0;
+        ByteParser(byte[] src, ByteScanner sc) {
+            this.b = src;
+            this.n = src.length;
+            this.sc = sc;
+            // UTF-8-BOM überspringen
+            if (n >= 3 && (b[0] & 0xFF) == 0xEF && (b[1] & 0xFF) == 0xBB && (b[2] & 0xFF) == 0xBF) i = 3;
+        }
+
+        Object parseValue() {
+            skipWs();
+            if (i >= n) return null;
+            byte c = b[i];
+            if (c == '{') return parseObject();
+            if (c == '[') return parseArray();
+            if (c == '"') return parseString();
+            if (c == 't' || c == 'f') return parseBoolean();
+            if (c == 'n') { i += 4; return null; } // "null"
+            return parseNumber();
+        }
+
+        Map<String,Object> parseObject() {
+            Map<String,Object> m = new LinkedHashMap<>();
+            expect('{'); skipWs();
+            if (peek('}')) { i++; return m; }
+            while (i < n) {
+                skipWs();
+                String key = parseString();
+                skipWs(); expect(':'); skipWs();
+                Object val = parseValue();
+                m.put(key, val);
+                skipWs();
+                if (peek('}')) { i++; break; }
+                expect(',');
+            }
+            return m;
+        }
+
+        List<Object> parseArray() {
+            List<Object> a = new ArrayList<>();
+            expect('['); skipWs();
+            if (peek(']')) { i++; return a; }
+            while (i < n) {
+                Object v = parseValue();
+                a.add(v);
+                skipWs();
+                if (peek(']')) { i++; break; }
+                expect(',');
+            }
+            return a;
+        }
+
+        String parseString() {
+            expect('"');
+            int j = sc.findQuoteOrBackslash(b, i, n);
+            if (j < n && b[j] == '"') {
+                // Regelfall ohne Escapes: direkt aus den Bytes schneiden
+                String v = new String(b, i, j - i, StandardCharsets.UTF_8);
+                i = j + 1;
+                return v;
+            }
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                sb.append(new String(b, i, j - i, StandardCharsets.UTF_8));
+                if (j >= n) { i = n; break; }
+                if (b[j] == '"') { i = j + 1; break; }
+                i = j + 1; // Backslash
+                if (i >= n) break;
+                byte e = b[i++];
+                switch (e) {
+                    case '"': sb.append('"'); break;
+                    case '\\': sb.append('\\'); break;
+                    case '/': sb.append('/'); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        if (i+3 < n) {
+                            String hex = new String(b, i, 4, StandardCharsets.ISO_8859_1);
+                            sb.append((char) Integer.parseInt(hex, 16));
+                            i += 4;
+                        }
+                        break;
+                    default: sb.append((char) e);
+                }
+                j = sc.findQuoteOrBackslash(b, i, n);
+            }
+            return sb.toString();
+        }
+
+        Boolean parseBoolean() {
+            if (startsWith("true")) { i += 4; return Boolean.TRUE; }
+            if (startsWith("false")) { i += 5; return Boolean.FALSE; }
+            return Boolean.FALSE;
+        }
+
+        private boolean startsWith(String lit) {
+            if (i + lit.length() > n) return false;
+            for (int k = 0; k < lit.length(); k++) if (b[i + k] != lit.charAt(k)) return false;
+            return true;
+        }
+
+        Number parseNumber() {
+            int start = i;
+            boolean integral = true;
+            while (i < n) {
+                byte c = b[i];
+                if ((c >= '0' && c <= '9') || c == '-' || c == '+') {
+                    i++;
+                } else if (c == '.' || c == 'e' || c == 'E') {
+                    integral = false;
+                    i++;
+                } else break;
+            }
+            String num = new String(b, start, i - start, StandardCharsets.ISO_8859_1);
+            try {
+                if (!integral) return Double.parseDouble(num);
+                long l = Long.parseLong(num);
+                if (l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE) return (int) l;
+                return l;
+            } catch (Exception e) {
+                return 0;
+            }
+        }
+
+        void skipWs() {
+            i = sc.skipWhitespace(b, i, n);
+        }
+        void expect(char ch) {
+            skipWs();
+            if (i >= n || b[i] != ch) {
+                throw new RuntimeException("JSON: Zeichen '" + ch + "' erwartet bei Position " + i);
+            }
+            i++;
+        }
+        boolean peek(char ch) {
+            skipWs();
+            return i < n && b[i] == ch;
+        }
+    }
 }
@@ -0,0 +1,635 @@
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Last- und Dauertest für DataRepository unter laufenden Reloads.
+ * Viele Leser-Threads (Plattform- und – ab Java 21 – virtuelle Threads)
+ * rufen getByUN, getByClass, Präfix- und Namenssuche auf, während ein
+ * Reload-Thread die Bereichsdateien in einem temporären Datenordner ständig
+ * zwischen zwei Varianten austauscht und {@link DataRepository#reload()} ruft.
+ * Mit --mutate wird stattdessen bei jedem Reload ein neuer Datenstand
+ * geschrieben, sodass kein Cache-Eintrag wiederverwendet werden kann.
+ *
+ * Gemessen werden Durchsatz, Latenz-Perzentile, Allokationsrate (prozessweit,
+ * Summe über alle lebenden Threads – virtuelle Threads zählen über ihre Träger),
+ * Heap- und Poolgrößen vor und nach dem Lauf sowie inkonsistente
+ * Lesezugriffe (Ergebnis mischt Datenstände, falsche Anzahl, Exception).
+ * Der Bericht (JSON) ist zwischen Versionen vergleichbar.
+ *
+ * Aufruf: java SoakTest [--data ordner] [--threads 1,4,16] [--seconds 10]
+ *                       [--reload-ms 250] [--mode platform,virtual] [--mutate]
+ *                       [--report soak_report.json]
+ * Ohne --data wird ein synthetischer Datenbestand erzeugt. Exit-Code 1 bei
+ * inkonsistenten Lesezugriffen oder fehlgeschlagenen Reloads.
+ */
+class SoakTest {
+
+    static final String[] OPS = {"getByUN", "getByClass", "prefix", "name"};
+    // Markierung des Datenstands am Ende jeder Bezeichnung: A ohne, B " ~B", --mutate " ~<n>"
+    private static final String MARK = " ~";
+
+    // Konfiguration
+    private Path source;
+    private int[] threadCounts = {1, 4, 16};
+    private int seconds = 10;
+    private int reloadMs = 250;
+    private List<String> modes = List.of("platform", "virtual");
+    private boolean mutate;
+    private Path reportPath = Paths.get("soak_report.json");
+
+    // Datenbestand
+    private Path workDir, dirA, dirB, liveDir;
+    private final List<String> rangeFiles = new ArrayList<>();
+    private final List<IndexRange> ranges = new ArrayList<>();
+    private final Map<String, List<Map<String, Object>>> rowsByFile = new LinkedHashMap<>();
+    private final Map<String, Integer> expectedUn = new HashMap<>();
+    private final Map<String, Integer> expectedClass = new HashMap<>();
+    private final Map<String, Integer> expectedPrefix = new HashMap<>();
+    private final Map<String, Integer> expectedName = new HashMap<>();
+    private String[] uns, classes, prefixes, terms;
+
+    public static void main(String[] args) {
+        SoakTest t = new SoakTest();
+        try {
+            t.parseArgs(args);
+            Map<String, Object> report = t.runAll();
+            try (Writer w = Files.newBufferedWriter(t.reportPath, StandardCharsets.UTF_8)) {
+                JSONMini.write(report, w);
+            }
+            System.out.println("Bericht: " + t.reportPath.toAbsolutePath());
+            System.exit(t.totalInconsistent > 0 || t.totalReloadFailures > 0 ? 1 : 0);
+        } catch (Exception e) {
+            System.err.println("Lasttest abgebrochen: " + e);
+            System.exit(2);
+        }
+    }
+
+    private long totalInconsistent;
+    private long totalReloadFailures;
+
+    private void parseArgs(String[] args) {
+        for (int a = 0; a < args.length; a++) {
+            String v = a + 1 < args.length ? args[a + 1] : null;
+            switch (args[a]) {
+                case "--data": source = Paths.get(v); a++; break;
+                case "--threads":
+                    threadCounts = Arrays.stream(v.split(",")).mapToInt(x -> Integer.parseInt(x.trim())).toArray();
+                    a++;
+                    break;
+                case "--seconds": seconds = Integer.parseInt(v); a++; break;
+                case "--reload-ms": reloadMs = Integer.parseInt(v); a++; break;
+                case "--mode": modes = Arrays.asList(v.split(",")); a++; break;
+                case "--mutate": mutate = true; break;
+                case "--report": reportPath = Paths.get(v); a++; break;
+                default: throw new IllegalArgumentException("Unbekannte Option: " + args[a]);
+            }
+        }
+    }
+
+    private Map<String, Object> runAll() throws Exception {
+        workDir = Files.createTempDirectory("gefahrenreader-soak");
+        try {
+            prepareData();
+            List<Object> runs = new ArrayList<>();
+            for (String mode : modes) {
+                for (int n : threadCounts) {
+                    Map<String, Object> r = runOnce(mode.trim(), n);
+                    runs.add(r);
+                }
+            }
+            Map<String, Object> config = new LinkedHashMap<>();
+            config.put("data", source == null ? "synthetisch" : source.toAbsolutePath().toString());
+            config.put("rows", expectedUn.values().stream().mapToInt(Integer::intValue).sum());
+            config.put("range_files", rangeFiles.size());
+            config.put("seconds", seconds);
+            config.put("reload_ms", reloadMs);
+            config.put("mutate", mutate);
+
+            Map<String, Object> env = new LinkedHashMap<>();
+            env.put("java", System.getProperty("java.version"));
+            env.put("vm", System.getProperty("java.vm.name"));
+            env.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+            env.put("cpus", Runtime.getRuntime().availableProcessors());
+            env.put("max_heap_mb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+            Map<String, Object> root = new LinkedHashMap<>();
+            root.put("title", "DataRepository – Lasttest unter Reloads");
+            root.put("generated", LocalDate.now().toString());
+            root.put("environment", env);
+            root.put("config", config);
+            root.put("runs", runs);
+            return root;
+        } finally {
+            deleteTree(workDir);
+        }
+    }
+
+    /* ----- Datenbestand ----- */
+
+    private void prepareData() throws IOException {
+        dirA = Files.createDirectory(workDir.resolve("a"));
+        dirB = Files.createDirectory(workDir.resolve("b"));
+        liveDir = Files.createDirectory(workDir.resolve("live"));
+
+        byte[] hazardCodes;
+        if (source != null) {
+            Path idx = DataRepository.findIndexJson(source);
+            if (idx == null) throw new IOException("index.json nicht gefunden in " + source);
+            Path dir = idx.getParent();
+            for (Object o : DataRepository.asArr(DataRepository.asObj(JSONMini.parse(Files.readAllBytes(idx))).get("ranges"))) {
+                Map<String, Object> m = DataRepository.asObj(o);
+                String file = DataRepository.str(m.get("file"));
+                Path rp = dir.resolve(file);
+                if (!Files.exists(rp)) continue;
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (Object ro : DataRepository.asArr(DataRepository.asObj(JSONMini.parse(Files.readAllBytes(rp))).get("rows"))) {
+                    rows.add(DataRepository.asObj(ro));
+                }
+                ranges.add(new IndexRange(DataRepository.str(m.get("range")), file, rows.size()));
+                rowsByFile.put(file, rows);
+            }
+            Path hz = dir.resolve("gefahrenzahl.json");
+            hazardCodes = Files.exists(hz) ? Files.readAllBytes(hz) : null;
+        } else {
+            syntheticData(ranges, rowsByFile);
+            hazardCodes = null;
+        }
+
+        // Erwartungswerte (in beiden Varianten gleich)
+        Map<String, Integer> termCandidates = new LinkedHashMap<>();
+        for (List<Map<String, Object>> rows : rowsByFile.values()) {
+            for (Map<String, Object> r : rows) {
+                String un = DataRepository.str(r.get("un_number"));
+                expectedUn.merge(un, 1, Integer::sum);
+                expectedClass.merge(DataRepository.str(r.get("klasse")), 1, Integer::sum);
+                for (String w : DataRepository.str(r.get("bezeichnung")).split("[^\\p{L}]+")) {
+                    if (w.length() >= 5 && termCandidates.size() < 64) termCandidates.putIfAbsent(w, 0);
+                }
+            }
+        }
+        for (Map.Entry<String, Integer> e : expectedUn.entrySet()) {
+            String un = e.getKey();
+            if (un.length() >= 2) expectedPrefix.merge(un.substring(0, 2), e.getValue(), Integer::sum);
+            if (un.length() >= 3) expectedPrefix.merge(un.substring(0, 3), e.getValue(), Integer::sum);
+        }
+        for (String term : termCandidates.keySet()) {
+            int n = 0;
+            for (List<Map<String, Object>> rows : rowsByFile.values()) {
+                for (Map<String, Object> r : rows) {
+                    if (DataRepository.str(r.get("bezeichnung")).toLowerCase(Locale.ROOT).contains(term.toLowerCase(Locale.ROOT))) n++;
+                }
+            }
+            expectedName.put(term, n);
+        }
+        uns = expectedUn.keySet().toArray(new String[0]);
+        classes = expectedClass.keySet().toArray(new String[0]);
+        prefixes = expectedPrefix.keySet().toArray(new String[0]);
+        terms = expectedName.keySet().toArray(new String[0]);
+
+        // Varianten A und B schreiben; B markiert jede Bezeichnung
+        String markB = MARK + "B";
+        List<Object> idxRanges = new ArrayList<>();
+        for (IndexRange r : ranges) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("range", r.rangeLabel);
+            m.put("file", r.fileName);
+            m.put("count", r.count);
+            idxRanges.add(m);
+            rangeFiles.add(r.fileName);
+            List<Map<String, Object>> rows = rowsByFile.get(r.fileName);
+            writeRangeFile(dirA.resolve(r.fileName), r, rows, "");
+            writeRangeFile(dirB.resolve(r.fileName), r, rows, markB);
+        }
+        Map<String, Object> index = new LinkedHashMap<>();
+        index.put("title", "UN-Nummern – Index");
+        index.put("columns", DataValidator.COLUMNS);
+        index.put("ranges", idxRanges);
+        for (Path d : List.of(dirA, dirB)) {
+            try (Writer w = Files.newBufferedWriter(d.resolve("index.json"), StandardCharsets.UTF_8)) {
+                JSONMini.write(index, w);
+            }
+            if (hazardCodes != null) Files.write(d.resolve("gefahrenzahl.json"), hazardCodes);
+        }
+    }
+
+    private static void writeRangeFile(Path target, IndexRange r, List<Map<String, Object>> rows, String mark) throws IOException {
+        List<Object> out = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("un_number", row.get("un_number"));
+            m.put("gefahrenzahl", row.get("gefahrenzahl"));
+            m.put("klasse", row.get("klasse"));
+            m.put("bezeichnung", DataRepository.str(row.get("bezeichnung")) + mark);
+            out.add(m);
+        }
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("title", "UN-Nummern " + r.rangeLabel);
+        root.put("count", out.size());
+        root.put("columns", DataValidator.COLUMNS);
+        root.put("rows", out);
+        try (Writer w = Files.newBufferedWriter(target, StandardCharsets.UTF_8)) {
+            JSONMini.write(root, w);
+        }
+    }
+
+    private static void syntheticData(List<IndexRange> ranges, Map<String, List<Map<String, Object>>> rowsByFile) {
+        String[] cls = {"1.1D", "2.1", "3", "4.1", "5.1", "6.1", "8", "9"};
+        String[] kemler = {null, "23", "33", "40", "50", "60", "80", "90"};
+        String[] forms = {"flüssig", "fest", "Lösung", "Gemisch"};
+        for (int k = 0; k < 40; k++) {
+            int lo = k * 100;
+            String file = String.format("%04d-%04d.json", lo, lo + 99);
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < 250; i++) {
+                int c = (k + i) % cls.length;
+                Map<String, Object> m = new LinkedHashMap<>();
+                m.put("un_number", String.format("%04d", lo + i % 100));
+                m.put("gefahrenzahl", kemler[c]);
+                m.put("klasse", cls[c]);
+                m.put("bezeichnung", "Teststoff " + (lo + i % 100) + " Variante " + (i / 100) + ", " + forms[i % forms.length]);
+                rows.add(m);
+            }
+            ranges.add(new IndexRange(String.format("%04d–%04d", lo, lo + 99), file, rows.size()));
+            rowsByFile.put(file, rows);
+        }
+    }
+
+    /** Tauscht alle Bereichsdateien atomar gegen die andere Variante. */
+    private void swapTo(Path variantDir) throws IOException {
+        for (String f : rangeFiles) {
+            Path tmp = liveDir.resolve(f + ".tmp");
+            Files.copy(variantDir.resolve(f), tmp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tmp, liveDir.resolve(f), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** Schreibt alle Bereichsdateien mit neuer Markierung (ein noch nie geladener Datenstand). */
+    private void writeLive(String mark) throws IOException {
+        for (IndexRange r : ranges) {
+            Path tmp = liveDir.resolve(r.fileName + ".tmp");
+            writeRangeFile(tmp, r, rowsByFile.get(r.fileName), mark);
+            Files.move(tmp, liveDir.resolve(r.fileName), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /* ----- Lauf ----- */
+
+    private Map<String, Object> runOnce(String mode, int threads) throws Exception {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mode", mode);
+        result.put("threads", threads);
+
+        ExecutorService readers = createExecutor(mode, threads);
+        if (readers == null) {
+            result.put("skipped", "Virtuelle Threads erst ab Java 21 verfügbar");
+            System.out.printf("%-8s %4d Threads: übersprungen (Java %s)%n", mode, threads, System.getProperty("java.version"));
+            return result;
+        }
+
+        // frischer Datenordner mit Variante A
+        for (String f : new String[]{"index.json", "gefahrenzahl.json"}) {
+            if (Files.exists(dirA.resolve(f))) Files.copy(dirA.resolve(f), liveDir.resolve(f), StandardCopyOption.REPLACE_EXISTING);
+        }
+        swapTo(dirA);
+        DataRepository repo = new DataRepository(liveDir.toFile());
+        long heap0 = heapAfterGc();
+        Map<String, Integer> pools0 = repo.poolSizes();
+
+        AtomicBoolean stop = new AtomicBoolean();
+        CountDownLatch ready = new CountDownLatch(threads + 1);
+        CountDownLatch go = new CountDownLatch(1);
+        ConcurrentLinkedQueue<String> samples = new ConcurrentLinkedQueue<>();
+
+        // Reload-Thread
+        LatencyHistogram reloadHist = new LatencyHistogram();
+        long[] reloads = {0};
+        long[] reloadFailures = {0};
+        Thread reloader = new Thread(() -> {
+            ready.countDown();
+            try {
+                go.await();
+                boolean b = false;
+                while (!stop.get()) {
+                    b = !b;
+                    // Fehler zählen und weitermachen – sonst fragen die Leser nur noch einen eingefrorenen Stand ab
+                    try {
+                        if (mutate) writeLive(MARK + (reloads[0] + reloadFailures[0] + 1));
+                        else swapTo(b ? dirB : dirA);
+                        long t0 = System.nanoTime();
+                        repo.reload();
+                        reloadHist.record(System.nanoTime() - t0);
+                        reloads[0]++;
+                    } catch (IOException | RuntimeException e) {
+                        reloadFailures[0]++;
+                        if (samples.size() < 10) samples.add("Reload fehlgeschlagen: " + e);
+                    }
+                    if (reloadMs > 0) Thread.sleep(reloadMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "soak-reloader");
+
+        List<Future<WorkerStats>> futures = new ArrayList<>();
+        for (int k = 0; k < threads; k++) {
+            futures.add(readers.submit(() -> readLoop(repo, stop, ready, go, samples)));
+        }
+        reloader.start();
+
+        ready.await();
+        long gcCount0 = gcCount(), gcTime0 = gcTime();
+        long alloc0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        go.countDown();
+        Thread.sleep(seconds * 1000L);
+        // messen, solange Leser und Reload-Thread noch leben
+        long alloc1 = allocatedBytes();
+        long elapsed = System.nanoTime() - t0;
+        stop.set(true);
+        WorkerStats total = new WorkerStats();
+        for (Future<WorkerStats> f : futures) total.add(f.get());
+        long allocated = (alloc0 < 0 || alloc1 < 0) ? -1 : alloc1 - alloc0;
+        reloader.join();
+        readers.shutdown();
+        readers.awaitTermination(10, TimeUnit.SECONDS);
+        double secs = elapsed / 1e9;
+        long gcCount1 = gcCount(), gcTime1 = gcTime();
+
+        Map<String, Object> memory = new LinkedHashMap<>();
+        long heap1 = heapAfterGc();
+        memory.put("heap_after_gc_mb_start", round(heap0 / (1024.0 * 1024)));
+        memory.put("heap_after_gc_mb_end", round(heap1 / (1024.0 * 1024)));
+        memory.put("pools_start", pools0);
+        memory.put("pools_end", repo.poolSizes());
+
+        long opsTotal = 0;
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (int k = 0; k < OPS.length; k++) {
+            LatencyHistogram h = total.hist[k];
+            opsTotal += h.count();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", h.count());
+            m.put("ops_per_sec", round(h.count() / secs));
+            m.putAll(h.summaryMicros());
+            ops.put(OPS[k], m);
+        }
+        totalInconsistent += total.inconsistent;
+        totalReloadFailures += reloadFailures[0];
+
+        result.put("seconds", round(secs));
+        result.put("ops_total", opsTotal);
+        result.put("ops_per_sec", round(opsTotal / secs));
+        result.put("inconsistent_reads", total.inconsistent);
+        result.put("alloc_mb_per_sec", allocated < 0 ? null : round(allocated / secs / (1024 * 1024)));
+        result.put("gc_count", gcCount1 - gcCount0);
+        result.put("gc_ms", gcTime1 - gcTime0);
+        result.put("reloads", reloads[0]);
+        result.put("reload_failures", reloadFailures[0]);
+        result.put("reload_latency", reloadHist.summaryMicros());
+        result.put("memory", memory);
+        result.put("ops", ops);
+        result.put("inconsistency_samples", new ArrayList<>(samples));
+
+        LatencyHistogram all = new LatencyHistogram();
+        for (LatencyHistogram h : total.hist) all.add(h);
+        System.out.printf("%-8s %4d Threads: %,12.0f ops/s  p50 %8.1f µs  p99 %8.1f µs  p99.9 %8.1f µs  %s MB/s  %d Reloads (%d fehlgeschlagen)  %d inkonsistent%n",
+                mode, threads, opsTotal / secs,
+                all.percentile(50) / 1000.0, all.percentile(99) / 1000.0, all.percentile(99.9) / 1000.0,
+                allocated < 0 ? "n/a" : String.format("%.1f", allocated / secs / (1024 * 1024)),
+                reloads[0], reloadFailures[0], total.inconsistent);
+        System.out.printf("%-8s %4d Threads: Heap nach GC %.1f → %.1f MB, Pools %s → %s%n",
+                mode, threads, heap0 / (1024.0 * 1024), heap1 / (1024.0 * 1024), pools0, memory.get("pools_end"));
+        return result;
+    }
+
+    private static ExecutorService createExecutor(String mode, int threads) {
+        if ("virtual".equals(mode)) {
+            try {
+                // ab Java 21; per Reflection, damit der Test auch unter 17 übersetzt
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                return null;
+            }
+        }
+        if (!"platform".equals(mode)) throw new IllegalArgumentException("Unbekannter Modus: " + mode);
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "soak-reader");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private WorkerStats readLoop(DataRepository repo, AtomicBoolean stop, CountDownLatch ready, CountDownLatch go,
+                                 Queue<String> samples) throws InterruptedException {
+        WorkerStats st = new WorkerStats();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        ready.countDown();
+        go.await();
+
+        while (!stop.get()) {
+            int roll = rnd.nextInt(100);
+            int op = roll < 40 ? 0 : roll < 60 ? 1 : roll < 80 ? 2 : 3;
+            String key;
+            int expected;
+            List<Substance> res;
+            long t0 = System.nanoTime();
+            try {
+                switch (op) {
+                    case 0:
+                        key = uns[rnd.nextInt(uns.length)];
+                        t0 = System.nanoTime();
+                        res = repo.getByUN(key);
+                        expected = expectedUn.get(key);
+                        break;
+                    case 1:
+                        key = classes[rnd.nextInt(classes.length)];
+                        t0 = System.nanoTime();
+                        res = repo.getByClass(key);
+                        expected = expectedClass.get(key);
+                        break;
+                    case 2:
+                        key = prefixes[rnd.nextInt(prefixes.length)];
+                        t0 = System.nanoTime();
+                        res = repo.findByUnPrefix(key);
+                        expected = expectedPrefix.get(key);
+                        break;
+                    default:
+                        if (terms.length == 0) continue;
+                        key = terms[rnd.nextInt(terms.length)];
+                        t0 = System.nanoTime();
+                        res = repo.searchByName(key);
+                        expected = expectedName.get(key);
+                }
+                st.hist[op].record(System.nanoTime() - t0);
+                String problem = check(op, key, expected, res);
+                if (problem != null) {
+                    st.inconsistent++;
+                    if (samples.size() < 10) samples.add(OPS[op] + "(" + key + "): " + problem);
+                }
+            } catch (RuntimeException e) {
+                st.hist[op].record(System.nanoTime() - t0);
+                st.inconsistent++;
+                if (samples.size() < 10) samples.add(OPS[op] + ": " + e);
+            }
+        }
+        return st;
+    }
+
+    /** null = konsistent, sonst Beschreibung des Problems. */
+    private static String check(int op, String key, int expected, List<Substance> res) {
+        if (res.size() != expected) return res.size() + " statt " + expected + " Treffer";
+        String variant = null;
+        for (Substance s : res) {
+            switch (op) {
+                case 0: if (!s.unNumber.equals(key)) return "fremde UN " + s.unNumber; break;
+                case 1: if (!s.klass.equals(key)) return "fremde Klasse " + s.klass; break;
+                case 2: if (!s.unNumber.startsWith(key)) return "UN " + s.unNumber + " passt nicht zum Präfix"; break;
+                default: break;
+            }
+            int m = s.name.lastIndexOf(MARK);
+            String v = m < 0 ? "" : s.name.substring(m);
+            if (variant == null) variant = v;
+            else if (!variant.equals(v)) return "Ergebnis mischt Datenstände";
+        }
+        return null;
+    }
+
+    /* ----- helpers ----- */
+
+    /**
+     * Bisher allokierte Bytes aller lebenden Plattform-Threads; -1, wenn die
+     * JVM das nicht unterstützt. Virtuelle Threads allokieren über ihre
+     * Träger-Threads und sind damit enthalten.
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (!(mx instanceof com.sun.management.ThreadMXBean)) return -1;
+        com.sun.management.ThreadMXBean tmx = (com.sun.management.ThreadMXBean) mx;
+        if (!tmx.isThreadAllocatedMemorySupported() || !tmx.isThreadAllocatedMemoryEnabled()) return -1;
+        long sum = 0;
+        for (long b : tmx.getThreadAllocatedBytes(mx.getAllThreadIds())) {
+            if (b > 0) sum += b; // -1 für inzwischen beendete Threads
+        }
+        return sum;
+    }
+
+    /** Belegter Heap nach einer vollständigen Garbage Collection. */
+    private static long heapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static long gcCount() {
+        long n = 0;
+        for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, b.getCollectionCount());
+        return n;
+    }
+
+    private static long gcTime() {
+        long n = 0;
+        for (GarbageCollectorMXBean b : ManagementFactory.getGarbageCollectorMXBeans()) n += Math.max(0, b.getCollectionTime());
+        return n;
+    }
+
+    static double round(double v) { return Math.round(v * 10) / 10.0; }
+
+    private static void deleteTree(Path root) {
+        if (root == null || !Files.exists(root)) return;
+        try (java.util.stream.Stream<Path> s = Files.walk(root)) {
+            s.sorted(Comparator.reverseOrder()).forEach(p -> {
+                try { Files.deleteIfExists(p); } catch (IOException ignored) {}
+            });
+        } catch (IOException ignored) {}
+    }
+}
+
+/** Messwerte eines Leser-Threads. */
+class WorkerStats {
+    final LatencyHistogram[] hist = new LatencyHistogram[SoakTest.OPS.length];
+    long inconsistent;
+    WorkerStats() {
+        for (int k = 0; k < hist.length; k++) hist[k] = new LatencyHistogram();
+    }
+    void add(WorkerStats o) {
+        for (int k = 0; k < hist.length; k++) hist[k].add(o.hist[k]);
+        inconsistent += o.inconsistent;
+    }
+}
+
+/**
+ * Log-lineares Latenzhistogramm nach HdrHistogram-Art: je Zweierpotenz
+ * 64 Unterteilungen, also höchstens ~1,6 % relativer Fehler bei fester
+ * Größe. Nicht threadsicher – ein Histogramm je Thread, am Ende addieren.
+ */
+class LatencyHistogram {
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int HALF = SUB_COUNT / 2;
+
+    private final long[] counts = new long[(64 - SUB_BITS) * HALF + SUB_COUNT];
+    private long total;
+    private long max;
+    private double sum;
+
+    void record(long nanos) {
+        long v = Math.max(0, nanos);
+        counts[indexOf(v)]++;
+        total++;
+        sum += v;
+        if (v > max) max = v;
+    }
+
+    void add(LatencyHistogram o) {
+        for (int k = 0; k < counts.length; k++) counts[k] += o.counts[k];
+        total += o.total;
+        sum += o.sum;
+        max = Math.max(max, o.max);
+    }
+
+    long count() { return total; }
+
+    private static int indexOf(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int exp = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        return exp * HALF + (int) (v >>> exp);
+    }
+
+    /** Obere Grenze des Buckets (wie highestEquivalentValue bei HdrHistogram). */
+    private static long upperBound(int idx) {
+        if (idx < SUB_COUNT) return idx;
+        int exp = idx / HALF - 1;
+        long lower = (long) (idx - exp * HALF) << exp;
+        return lower + (1L << exp) - 1;
+    }
+
+    /** Wert (ns), unter dem p Prozent der Messungen liegen. */
+    long percentile(double p) {
+        if (total == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(p / 100.0 * total));
+        long seen = 0;
+        for (int k = 0; k < counts.length; k++) {
+            seen += counts[k];
+            if (seen >= target) return Math.min(upperBound(k), max);
+        }
+        return max;
+    }
+
+    Map<String, Object> summaryMicros() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("mean_us", SoakTest.round(total == 0 ? 0 : sum / total / 1000.0));
+        m.put("p50_us", SoakTest.round(percentile(50) / 1000.0));
+        m.put("p90_us", SoakTest.round(percentile(90) / 1000.0));
+        m.put("p99_us", SoakTest.round(percentile(99) / 1000.0));
+        m.put("p999_us", SoakTest.round(percentile(99.9) / 1000.0));
+        m.put("max_us", SoakTest.round(max / 1000.0));
+        return m;
+    }
+}
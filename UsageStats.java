@@ -0,0 +1,94 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Zählt, welche Klassen, Bereiche und UN-Nummern geöffnet werden, und merkt
+ * sich das in einer kleinen Datei (~/.gefahrenreader/usage.properties).
+ * Grundlage für das Vorwärmen beim nächsten Start.
+ *
+ * Zähler sind nach oben begrenzt und werden bei jedem Laden abgeschwächt,
+ * damit alte Gewohnheiten verblassen und neue Einträge nachrücken können.
+ */
+class UsageStats {
+
+    static final String CLASS = "class:";
+    static final String RANGE = "range:";
+    static final String UN = "un:";
+
+    /** Höchstens so viele Einträge werden gespeichert. */
+    static final int MAX_ENTRIES = 100;
+    /** Obergrenze je Zähler. */
+    static final double MAX_COUNT = 20;
+    /** Faktor je Programmstart; Einträge unter {@link #MIN_COUNT} entfallen. */
+    static final double DECAY = 0.9;
+    static final double MIN_COUNT = 0.1;
+
+    private final Path file;
+    private final Map<String, Double> counts = new HashMap<>();
+    private boolean dirty;
+
+    UsageStats(Path file) {
+        this.file = file;
+        load();
+    }
+
+    static Path defaultFile() {
+        return Paths.get(System.getProperty("user.home"), ".gefahrenreader", "usage.properties");
+    }
+
+    private void load() {
+        if (file == null || !Files.exists(file)) return;
+        Properties p = new Properties();
+        try (Reader r = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            p.load(r);
+        } catch (IOException e) {
+            return; // Statistik ist optional
+        }
+        for (String k : p.stringPropertyNames()) {
+            try {
+                double v = Math.min(MAX_COUNT, Double.parseDouble(p.getProperty(k).trim())) * DECAY;
+                if (v >= MIN_COUNT) counts.put(k, v);
+            } catch (NumberFormatException ignored) {}
+        }
+    }
+
+    synchronized void record(String prefix, String value) {
+        if (value == null || value.isEmpty()) return;
+        counts.merge(prefix + value, 1.0, (a, b) -> Math.min(MAX_COUNT, a + b));
+        dirty = true;
+    }
+
+    /** Häufigste Werte zu einem Präfix, absteigend. */
+    synchronized List<String> top(String prefix, int limit) {
+        List<Map.Entry<String, Double>> list = new ArrayList<>();
+        for (Map.Entry<String, Double> e : counts.entrySet()) {
+            if (e.getKey().startsWith(prefix)) list.add(e);
+        }
+        list.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        List<String> out = new ArrayList<>();
+        for (int k = 0; k < list.size() && k < limit; k++) out.add(list.get(k).getKey().substring(prefix.length()));
+        return out;
+    }
+
+    /** Schreibt die häufigsten {@link #MAX_ENTRIES} Einträge, falls sich etwas geändert hat. */
+    synchronized void save() {
+        if (!dirty || file == null) return;
+        List<Map.Entry<String, Double>> list = new ArrayList<>(counts.entrySet());
+        list.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        Properties p = new Properties();
+        for (int k = 0; k < list.size() && k < MAX_ENTRIES; k++) {
+            p.setProperty(list.get(k).getKey(), String.format(Locale.ROOT, "%.2f", list.get(k).getValue()));
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                p.store(w, "GefahrenReader – Nutzungsstatistik");
+            }
+            dirty = false;
+        } catch (IOException ignored) {
+            // nicht kritisch
+        }
+    }
+}
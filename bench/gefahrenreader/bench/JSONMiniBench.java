@@ -0,0 +1,85 @@
+package gefahrenreader.bench;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH-Vergleich der JSONMini-Pfade auf den echten Bereichsdateien:
+ * String-Parser (skalar), Byte-Parser mit skalarem Scanner und Byte-Parser
+ * mit VectorScanner.
+ *
+ * JMH verlangt ein Paket; JSONMini liegt im Default-Package und wird deshalb
+ * per MethodHandle angesprochen. Nur bytesVector setzt den VectorScanner
+ * voraus; ohne simd/ laufen die beiden anderen Benchmarks trotzdem.
+ *
+ * Übersetzen und starten (JMH-Jars in ./lib):
+ *   javac -encoding UTF-8 --add-modules jdk.incubator.vector -d out *.java simd/*.java
+ *   javac -encoding UTF-8 -cp out:lib/* -d out bench/gefahrenreader/bench/JSONMiniBench.java
+ *   java -cp out:lib/* org.openjdk.jmh.Main JSONMiniBench -p dataDir=data
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class JSONMiniBench {
+
+    private static final MethodHandle PARSE_STRING;
+    private static final MethodHandle PARSE_BYTES;
+    private static final Object SCALAR;
+    private static final Object SCANNER;
+    private static final boolean VECTOR;
+
+    static {
+        try {
+            Class<?> json = Class.forName("JSONMini");
+            Class<?> scanner = Class.forName("JSONMini$ByteScanner");
+            MethodHandles.Lookup l = MethodHandles.privateLookupIn(json, MethodHandles.lookup());
+            PARSE_STRING = l.findStatic(json, "parse", MethodType.methodType(Object.class, String.class));
+            PARSE_BYTES = l.findStatic(json, "parse", MethodType.methodType(Object.class, byte[].class, scanner));
+            SCALAR = l.findStaticGetter(json, "SCALAR", scanner).invoke();
+            SCANNER = l.findStaticGetter(json, "SCANNER", scanner).invoke();
+            VECTOR = "VectorScanner".equals(SCANNER.getClass().getName());
+        } catch (Throwable t) {
+            throw new ExceptionInInitializerError(t);
+        }
+    }
+
+    @Param("data")
+    public String dataDir;
+
+    private final List<byte[]> files = new ArrayList<>();
+
+    @Setup
+    public void load() throws Exception {
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(Paths.get(dataDir),
+                "[0-9][0-9][0-9][0-9]-[0-9][0-9][0-9][0-9].json")) {
+            for (Path p : ds) files.add(Files.readAllBytes(p));
+        }
+        if (files.isEmpty()) throw new IllegalStateException("Keine Bereichsdateien in " + dataDir);
+    }
+
+    @Benchmark
+    public void stringScalar(Blackhole bh) throws Throwable {
+        for (byte[] f : files) bh.consume(PARSE_STRING.invoke(new String(f, StandardCharsets.UTF_8)));
+    }
+
+    @Benchmark
+    public void bytesScalar(Blackhole bh) throws Throwable {
+        for (byte[] f : files) bh.consume(PARSE_BYTES.invoke(f, SCALAR));
+    }
+
+    @Benchmark
+    public void bytesVector(Blackhole bh) throws Throwable {
+        if (!VECTOR) throw new IllegalStateException("VectorScanner nicht aktiv – simd/ mitkompilieren und Modul hinzufügen.");
+        for (byte[] f : files) bh.consume(PARSE_BYTES.invoke(f, SCANNER));
+    }
+}
@@ -0,0 +1,52 @@
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD-Variante von {@link JSONMini.ByteScanner} (Vector API, Inkubator).
+ * Prüft 16 bzw. 32 Bytes pro Schritt auf '"', '\\' und Whitespace.
+ * Strukturzeichen bleiben skalar (Begründung bei {@link JSONMini.ByteScanner}).
+ *
+ * Wird von JSONMini per Reflection geladen und nur mit
+ * --add-modules jdk.incubator.vector übersetzt/gestartet; fehlt das Modul,
+ * bleibt es beim skalaren Scanner.
+ */
+class VectorScanner implements JSONMini.ByteScanner {
+
+    private static final VectorSpecies<Byte> SPECIES =
+            ByteVector.SPECIES_PREFERRED.vectorBitSize() >= 256 ? ByteVector.SPECIES_256 : ByteVector.SPECIES_128;
+    private static final int LANES = SPECIES.length();
+
+    @Override public int findQuoteOrBackslash(byte[] b, int from, int to) {
+        int k = from;
+        for (; k <= to - LANES; k += LANES) {
+            ByteVector v = ByteVector.fromArray(SPECIES, b, k);
+            VectorMask<Byte> m = v.eq((byte) '"').or(v.eq((byte) '\\'));
+            if (m.anyTrue()) return k + m.firstTrue();
+        }
+        for (; k < to; k++) {
+            byte c = b[k];
+            if (c == '"' || c == '\\') return k;
+        }
+        return to;
+    }
+
+    @Override public int skipWhitespace(byte[] b, int from, int to) {
+        int k = from;
+        // meist steht direkt ein Token an – dann kein Vektor laden
+        if (k < to && !isWs(b[k])) return k;
+        for (; k <= to - LANES; k += LANES) {
+            ByteVector v = ByteVector.fromArray(SPECIES, b, k);
+            VectorMask<Byte> ws = v.eq((byte) ' ').or(v.eq((byte) '\n')).or(v.eq((byte) '\r')).or(v.eq((byte) '\t'));
+            if (!ws.allTrue()) return k + ws.not().firstTrue();
+        }
+        for (; k < to; k++) {
+            if (!isWs(b[k])) return k;
+        }
+        return to;
+    }
+
+    private static boolean isWs(byte c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+}